@@ -0,0 +1,196 @@
+package ds;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Dictionary that many threads may use at once. Buckets are chains of nodes
+ * whose links are volatile, so find never locks: it walks whatever chain it
+ * sees. Writers lock the stripe owning the bucket; table sizes are multiples
+ * of the stripe count, so a key keeps its stripe when the table grows. Each
+ * stripe counts its own records, and growing takes every stripe lock and
+ * publishes a copied table, leaving the old one intact for readers still on
+ * it. Inserting an existing key replaces its value; null values are not
+ * allowed, as find returns null for a missing key.
+ */
+public class ConcurrentHashDictionary<Key, E> implements Dictionary<Key, E> {
+	private static final int defaultStripes = 16;
+	private static final int pad = 8; // Longs between stripe counters
+	private static final double maxLoad = 0.75;
+	private volatile AtomicReferenceArray<Node<Key, E>> table;
+	private final ReentrantLock[] locks; // One per stripe
+	private final AtomicLongArray counts; // Records per stripe, padded apart
+	private final int stripes;
+	private volatile long resizes;
+
+	public ConcurrentHashDictionary() {
+		this(defaultStripes);
+	}
+
+	/**
+	 * @param stripes
+	 *            The number of write locks; rounded up to a power of two.
+	 */
+	public ConcurrentHashDictionary(int stripes) {
+		if (stripes < 1)
+			throw new IllegalArgumentException("Stripe count must be positive");
+		int s = 1;
+		while (s < stripes)
+			s <<= 1;
+		this.stripes = s;
+		locks = new ReentrantLock[s];
+		for (int i = 0; i < s; i++)
+			locks[i] = new ReentrantLock();
+		counts = new AtomicLongArray(s * pad);
+		table = new AtomicReferenceArray<Node<Key, E>>(Math.max(16, s));
+	}
+
+	public void clear() { /** Reinitialize */
+		lockAll();
+		try {
+			table = new AtomicReferenceArray<Node<Key, E>>(table.length());
+			for (int s = 0; s < stripes; s++)
+				counts.set(s * pad, 0);
+		} finally {
+			unlockAll();
+		}
+	}
+
+	public void insert(Key k, E e) { /** Insert an element */
+		if (e == null)
+			throw new IllegalArgumentException("Null values are not allowed");
+		int h = hash(k);
+		int s = h & (stripes - 1);
+		AtomicReferenceArray<Node<Key, E>> t;
+		boolean grow;
+		locks[s].lock();
+		try {
+			t = table;
+			int i = h & (t.length() - 1);
+			Node<Key, E> head = t.get(i);
+			for (Node<Key, E> p = head; p != null; p = p.next)
+				if (p.hash == h && p.key.equals(k)) {
+					p.value = e;
+					return;
+				}
+			t.set(i, new Node<Key, E>(h, k, e, head));
+			long c = counts.incrementAndGet(s * pad);
+			// Sum the stripes only once this one passes its share
+			grow = c > maxLoad * t.length() / stripes && size() > maxLoad * t.length();
+		} finally {
+			locks[s].unlock();
+		}
+		if (grow)
+			grow(t);
+	}
+
+	public E remove(Key k) { /** Remove an element */
+		int h = hash(k);
+		int s = h & (stripes - 1);
+		locks[s].lock();
+		try {
+			AtomicReferenceArray<Node<Key, E>> t = table;
+			int i = h & (t.length() - 1);
+			Node<Key, E> prev = null;
+			for (Node<Key, E> p = t.get(i); p != null; prev = p, p = p.next)
+				if (p.hash == h && p.key.equals(k)) {
+					if (prev == null)
+						t.set(i, p.next);
+					else
+						prev.next = p.next;
+					counts.decrementAndGet(s * pad);
+					return p.value;
+				}
+			return null;
+		} finally {
+			locks[s].unlock();
+		}
+	}
+
+	/** Find a record with key value "k"; never blocks */
+	public E find(Key k) {
+		int h = hash(k);
+		AtomicReferenceArray<Node<Key, E>> t = table;
+		for (Node<Key, E> p = t.get(h & (t.length() - 1)); p != null; p = p.next)
+			if (p.hash == h && p.key.equals(k))
+				return p.value;
+		return null;
+	}
+
+	/** Return number of values in the hash table */
+	public int size() {
+		long sum = 0;
+		for (int s = 0; s < stripes; s++)
+			sum += counts.get(s * pad);
+		return (int) Math.min(sum, Integer.MAX_VALUE);
+	}
+
+	/** Return how many times the table has grown */
+	public long resizes() {
+		return resizes;
+	}
+
+	/** Nothing to change; the layout stays chained so find can stay lock-free */
+	public void toClosedHash() {
+	}
+
+	/** Print every record as (key, value); not a consistent snapshot */
+	public void print() {
+		AtomicReferenceArray<Node<Key, E>> t = table;
+		for (int i = 0; i < t.length(); i++)
+			for (Node<Key, E> p = t.get(i); p != null; p = p.next)
+				System.out.println("(" + p.key + ", " + p.value + ")");
+	}
+
+	/** Double the table unless another thread already replaced old */
+	private void grow(AtomicReferenceArray<Node<Key, E>> old) {
+		lockAll();
+		try {
+			if (table != old)
+				return;
+			int m = 2 * old.length();
+			AtomicReferenceArray<Node<Key, E>> t = new AtomicReferenceArray<Node<Key, E>>(m);
+			for (int i = 0; i < old.length(); i++)
+				for (Node<Key, E> p = old.get(i); p != null; p = p.next) {
+					int j = p.hash & (m - 1); // Copies, so old chains stay as readers saw them
+					t.set(j, new Node<Key, E>(p.hash, p.key, p.value, t.get(j)));
+				}
+			table = t;
+			resizes++;
+		} finally {
+			unlockAll();
+		}
+	}
+
+	private void lockAll() {
+		for (int s = 0; s < stripes; s++)
+			locks[s].lock();
+	}
+
+	private void unlockAll() {
+		for (int s = stripes - 1; s >= 0; s--)
+			locks[s].unlock();
+	}
+
+	/** Spread the high bits down, as tables are masked to a power of two */
+	private static int hash(Object k) {
+		int h = k.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	/** Chain link; next and value may change while readers walk past */
+	private static class Node<Key, E> {
+		final int hash;
+		final Key key;
+		volatile E value;
+		volatile Node<Key, E> next;
+
+		Node(int hash, Key key, E value, Node<Key, E> next) {
+			this.hash = hash;
+			this.key = key;
+			this.value = value;
+			this.next = next;
+		}
+	}
+}
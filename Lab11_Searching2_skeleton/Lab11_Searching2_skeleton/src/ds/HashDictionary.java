@@ -6,19 +6,45 @@ public class HashDictionary<Key extends Comparable<? super Key>, E> implements D
 	private HashTable<Key, E> T; // The hash table
 	private int count; // # of records now in table
 	private int maxsize; // Maximum size of dictionary
+	private double maxLoad; // Load factor that makes the table grow
+	private HashStrategy strategy; // How keys map to buckets
 
 	public HashDictionary() {
 		this(defaultSize);
 	}
 
 	HashDictionary(int sz) {
-		T = new HashTable<Key, E>(sz);
+		this(sz, 0.75);
+	}
+
+	/**
+	 * @param sz
+	 *            The initial number of buckets.
+	 * @param maxLoad
+	 *            The load factor above which the table doubles in size.
+	 */
+	public HashDictionary(int sz, double maxLoad) {
+		this(sz, maxLoad, HashStrategy.MODULO);
+	}
+
+	/**
+	 * @param sz
+	 *            The initial number of buckets.
+	 * @param maxLoad
+	 *            The load factor above which the table doubles in size.
+	 * @param strategy
+	 *            How keys are mapped to buckets.
+	 */
+	public HashDictionary(int sz, double maxLoad, HashStrategy strategy) {
+		T = new HashTable<Key, E>(sz, maxLoad, strategy);
 		count = 0;
 		maxsize = sz;
+		this.maxLoad = maxLoad;
+		this.strategy = strategy;
 	}
 
 	public void clear() { /** Reinitialize */
-		T = new HashTable<Key, E>(maxsize);
+		T = new HashTable<Key, E>(maxsize, maxLoad, strategy);
 		count = 0;
 	}
 
@@ -44,8 +70,38 @@ public class HashDictionary<Key extends Comparable<? super Key>, E> implements D
 		return count;
 	}
 
+	/** Return the current number of records per bucket */
+	public double loadFactor() {
+		return T.loadFactor();
+	}
+
+	/** Return how many times the table has grown since the last clear */
+	public long resizes() {
+		return T.resizes();
+	}
+
+	/** Return a report of how the keys spread over the table */
+	public String diagnostics() {
+		return T.diagnostics();
+	}
+
 	public void toClosedHash(){ T.changeToClosed(); }
 
+	/** Switch back to chaining */
+	public void toOpenHash() {
+		T.changeToOpen();
+	}
+
+	/** Return the longest probe sequence or chain position of any record */
+	public int maxProbe() {
+		return T.maxProbe();
+	}
+
+	/** Return the mean probe sequence length over all records */
+	public double averageProbe() {
+		return T.averageProbe();
+	}
+
 	public void print() {
 		T.hashPrint();
 	}
@@ -0,0 +1,89 @@
+package ds;
+
+import java.security.SecureRandom;
+
+/** Maps keys to slots of a hash table. */
+public interface HashStrategy {
+	/**
+	 * @return The slot of key k in a table of m slots, in 0..m-1.
+	 * @param k
+	 *            The key; never null.
+	 * @param m
+	 *            The table size, as returned by tableSize.
+	 */
+	public int index(Object k, int m);
+
+	/** @return The table size to use when m slots are asked for. */
+	public default int tableSize(int m) {
+		return m;
+	}
+
+	/**
+	 * Integer keys by value, other keys by hashCode, reduced modulo the table
+	 * size. Cheap, but keys that share a factor with the size cluster.
+	 */
+	public static final HashStrategy MODULO = new HashStrategy() {
+		public int index(Object k, int m) {
+			int h = k instanceof Integer ? (Integer) k : k.hashCode();
+			return Math.floorMod(h, m);
+		}
+	};
+
+	/**
+	 * hashCode passed through the MurmurHash3 finalizer, so every key bit
+	 * affects the low bits, then masked. Tables are rounded up to a power of
+	 * two.
+	 */
+	public static final HashStrategy MIXED = new HashStrategy() {
+		public int index(Object k, int m) {
+			return mix(k.hashCode()) & (m - 1);
+		}
+
+		public int tableSize(int m) {
+			int size = 1;
+			while (size < m)
+				size <<= 1;
+			return size;
+		}
+	};
+
+	/**
+	 * @return A strategy whose slots depend on a secret seed, for keys that
+	 *         come from untrusted input. String keys are hashed from their
+	 *         characters, so strings with equal hashCode still spread out;
+	 *         other keys fall back to a seeded mix of hashCode.
+	 */
+	public static HashStrategy seeded(final long seed) {
+		return new HashStrategy() {
+			public int index(Object k, int m) {
+				long h = seed;
+				if (k instanceof String) {
+					String s = (String) k;
+					for (int i = 0; i < s.length(); i++)
+						h = (h ^ s.charAt(i)) * 0x100000001B3L;
+					h ^= s.length();
+				} else
+					h ^= k.hashCode();
+				h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+				h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+				h ^= h >>> 33;
+				return (int) (((h >>> 32) * m) >>> 32); // High bits scaled to 0..m-1
+			}
+		};
+	}
+
+	/** @return A seeded strategy with a seed drawn at random. */
+	public static HashStrategy seeded() {
+		return seeded(new SecureRandom().nextLong());
+	}
+
+	/** The 32-bit MurmurHash3 finalizer */
+	private static int mix(int h) {
+		h ^= h >>> 16;
+		h *= 0x85EBCA6B;
+		h ^= h >>> 13;
+		h *= 0xC2B2AE35;
+		h ^= h >>> 16;
+		return h;
+	}
+}
@@ -1,62 +1,428 @@
 package ds;
 
 import java.lang.reflect.Array;
+import java.util.Arrays;
 
 public class HashTable<Key extends Comparable<? super Key>, E> {
+	private static final double defaultLoad = 0.75;
+	private static final int rehashStep = 4; // Old buckets moved per operation
 	private int M; // Size of the table
 	private KVpair<Key, E>[] T; // Array of the elements
+	private int oldM; // Size of the table being drained
+	private KVpair<Key, E>[] old; // Table being drained; null unless rehashing
+	private int rehashIdx; // Next bucket of old to move
+	private int n; // # of records in both tables
+	private double maxLoad; // Records per bucket that trigger growth
+	private long resizes; // # of growths started
+	private boolean closed; // Whether records live in C instead of T
+	private KVpair<Key, E>[] C; // Slots of the closed table; null when empty
+	private int[] probe; // Distance of each slot's record from its home slot
+	private HashStrategy strategy; // Maps keys to slots
 
-	@SuppressWarnings("unchecked") // Allow the generic array allocation
 	public HashTable(int m) {
-		M = m;
-		T = (KVpair<Key, E>[]) Array.newInstance(KVpair.class, M);
-		for (int i = 0; i < M; i++)
-			T[i] = new KVpair<Key, E>();
+		this(m, defaultLoad);
+	}
+
+	/**
+	 * @param maxLoad
+	 *            The load factor above which the table doubles in size.
+	 */
+	public HashTable(int m, double maxLoad) {
+		this(m, maxLoad, HashStrategy.MODULO);
+	}
+
+	/**
+	 * @param maxLoad
+	 *            The load factor above which the table doubles in size.
+	 * @param strategy
+	 *            How keys are mapped to slots; may round the size up.
+	 */
+	public HashTable(int m, double maxLoad, HashStrategy strategy) {
+		if (m < 1)
+			throw new IllegalArgumentException("Table size must be positive");
+		if (!(maxLoad > 0))
+			throw new IllegalArgumentException("Load factor must be positive");
+		this.strategy = strategy;
+		M = strategy.tableSize(m);
+		T = newTable(M);
+		this.maxLoad = maxLoad;
+	}
+
+	@SuppressWarnings("unchecked") // Allow the generic array allocation
+	private KVpair<Key, E>[] newTable(int m) {
+		KVpair<Key, E>[] t = (KVpair<Key, E>[]) Array.newInstance(KVpair.class, m);
+		for (int i = 0; i < m; i++)
+			t[i] = new KVpair<Key, E>(); // Header of the chain
+		return t;
 	}
 
 	/** Insert record r into T */
 	public void hashInsert(Key k, E r) {
-		// Fill in your codes
-
+		if (closed) {
+			if (n + 1 > closedLoad() * M)
+				resizeClosed(2 * M);
+			place(new KVpair<Key, E>(k, r));
+			n++;
+			return;
+		}
+		rehashSome();
+		if (old == null && n + 1 > maxLoad * M)
+			startRehash();
+		append(T[hash(k, M)], new KVpair<Key, E>(k, r));
+		n++;
 	}
 
 	/** Search for the record with key k */
 	public E hashSearch(Key k) {
-		// Fill in your codes
-
+		if (closed) {
+			int i = slotOf(k);
+			return i < 0 ? null : C[i].value();
+		}
+		rehashSome();
+		KVpair<Key, E> p = null;
+		if (old != null && hash(k, oldM) >= rehashIdx) // Older records first
+			p = before(old[hash(k, oldM)], k);
+		if (p == null)
+			p = before(T[hash(k, M)], k);
+		return p == null ? null : p.next().value();
 	}
 
 	/** Remove a record with key value k from the hash table */
 	public E hashRemove(Key k) {
-		// Fill in your codes
-
+		if (closed)
+			return removeClosed(k);
+		rehashSome();
+		KVpair<Key, E> p = null;
+		if (old != null && hash(k, oldM) >= rehashIdx) // Older records first
+			p = before(old[hash(k, oldM)], k);
+		if (p == null)
+			p = before(T[hash(k, M)], k);
+		if (p == null)
+			return null;
+		E temp = p.next().value();
+		p.set_next(p.next().next());
+		n--;
+		return temp;
 	}
 
-	/** Change the open hashing to the closed hashing */
+	/**
+	 * Change the open hashing to the closed hashing. Records are placed by
+	 * Robin Hood linear probing: an insert that has probed further than the
+	 * record in a slot takes the slot and moves that record on, which keeps
+	 * probe lengths even, and a search can stop at the first record closer
+	 * to its home than the search is. Removal shifts the following records
+	 * back one slot, so no tombstones are left.
+	 */
 	public void changeToClosed(){
-		// Fill in your codes
+		if (closed)
+			return;
+		finishRehash();
+		int m = M;
+		while (n + 1 > closedLoad() * m)
+			m *= 2;
+		allocateClosed(m);
+		for (int i = 0; i < T.length; i++)
+			for (KVpair<Key, E> p = T[i].next(); p != null; ) {
+				KVpair<Key, E> next = p.next();
+				p.set_next(null);
+				place(p);
+				p = next;
+			}
+		T = null;
+		closed = true;
+	}
 
+	/** Change the closed hashing back to the open hashing */
+	public void changeToOpen() {
+		if (!closed)
+			return;
+		KVpair<Key, E>[] slots = C;
+		int start = freeSlot();
+		T = newTable(M);
+		for (int s = 1; s <= slots.length; s++) {
+			int i = (start + s) % slots.length;
+			if (slots[i] != null)
+				append(T[hash(slots[i].key(), M)], slots[i]);
+		}
+		C = null;
+		probe = null;
+		closed = false;
+	}
+
+	/** @return true if the table uses closed hashing */
+	public boolean isClosed() {
+		return closed;
 	}
 
 	/** Print the entire elements with keys and values in order */
 	public void hashPrint(){
-		// Fill in your codes
+		if (closed) {
+			for (int i = 0; i < M; i++)
+				if (C[i] != null)
+					System.out.println("(" + C[i].key() + ", " + C[i].value() + ")");
+			return;
+		}
+		finishRehash();
+		for (int i = 0; i < M; i++)
+			for (KVpair<Key, E> p = T[i].next(); p != null; p = p.next())
+				System.out.println("(" + p.key() + ", " + p.value() + ")");
+	}
+
+	/**
+	 * @return the longest probe sequence of any record: its distance from
+	 *         its home slot when closed, its position in its chain when open
+	 */
+	public int maxProbe() {
+		return probeCounts().length - 1;
+	}
+
+	/** @return the mean probe sequence length over all records */
+	public double averageProbe() {
+		int[] counts = probeCounts();
+		long sum = 0;
+		for (int d = 0; d < counts.length; d++)
+			sum += (long) d * counts[d];
+		return n == 0 ? 0 : (double) sum / n;
+	}
 
+	/** @return the number of records at each probe length, up to the longest */
+	public int[] probeCounts() {
+		int[] counts = new int[1];
+		if (closed) {
+			for (int i = 0; i < M; i++)
+				if (C[i] != null)
+					counts = count(counts, probe[i]);
+		} else {
+			finishRehash();
+			for (int i = 0; i < M; i++) {
+				int d = 0;
+				for (KVpair<Key, E> p = T[i].next(); p != null; p = p.next())
+					counts = count(counts, d++);
+			}
+		}
+		return counts;
 	}
 
 	/**
-	 * If the key is an Integer, then use a simple mod function for the hash
-	 * function. If the key is a String, then use folding.
+	 * @return a report of how the keys spread over the table: how many home
+	 *         slots hold each number of keys, the longest chain or probe,
+	 *         and the collisions seen against those expected if keys were
+	 *         spread uniformly at random
 	 */
-	private int hash(Key k) {
-		Object keyO = k;
-		if (keyO.getClass() == Integer.class) {
-			return Integer.parseInt(k.toString()) % M;
+	public String diagnostics() {
+		finishRehash();
+		int[] homes = new int[M]; // Keys whose home is each slot
+		if (closed) {
+			for (int i = 0; i < M; i++)
+				if (C[i] != null)
+					homes[hash(C[i].key(), M)]++;
 		} else {
-			return k.hashCode() % M;
+			for (int i = 0; i < M; i++)
+				for (KVpair<Key, E> p = T[i].next(); p != null; p = p.next())
+					homes[i]++;
 		}
+		int[] occupancy = new int[1];
+		for (int i = 0; i < M; i++)
+			occupancy = count(occupancy, homes[i]);
+		int observed = n - (M - occupancy[0]); // Keys not first at their home
+		double expected = n - M * (1 - Math.pow(1 - 1.0 / M, n));
+		int longest = maxProbe();
+
+		StringBuilder sb = new StringBuilder();
+		sb.append(closed ? "Closed" : "Open").append(" hashing, ").append(M).append(" slots, ").append(n)
+				.append(" records, load ").append(String.format("%.3f", loadFactor())).append('\n');
+		sb.append("Keys per home slot:");
+		for (int c = 0; c < occupancy.length; c++)
+			if (occupancy[c] > 0)
+				sb.append(' ').append(c).append(':').append(occupancy[c]);
+		sb.append('\n');
+		if (closed)
+			sb.append("Longest probe: ").append(longest).append('\n');
+		else
+			sb.append("Longest chain: ").append(n == 0 ? 0 : longest + 1).append('\n');
+		sb.append(String.format("Collisions: %d observed, %.1f expected", observed, expected));
+		if (observed > 2 * expected + 10)
+			sb.append(" (keys cluster; try another hash strategy)");
+		return sb.append('\n').toString();
 	}
 
+	private static int[] count(int[] counts, int d) {
+		if (d >= counts.length)
+			counts = Arrays.copyOf(counts, d + 1);
+		counts[d]++;
+		return counts;
+	}
 
-}
+	/** @return the number of records per bucket */
+	public double loadFactor() {
+		return (double) n / M;
+	}
+
+	/** @return the number of times the table started to grow */
+	public long resizes() {
+		return resizes;
+	}
+
+	/** @return true while records are still being moved to a larger table */
+	public boolean isRehashing() {
+		return old != null;
+	}
 
+	/** Closed tables need a free slot, so their load stays below 1 */
+	private double closedLoad() {
+		return Math.min(maxLoad, 0.9);
+	}
+
+	@SuppressWarnings("unchecked") // Allow the generic array allocation
+	private void allocateClosed(int m) {
+		M = m;
+		C = (KVpair<Key, E>[]) Array.newInstance(KVpair.class, m);
+		probe = new int[m];
+	}
+
+	/** Rebuild the closed table with m slots; all at once, unlike chaining */
+	private void resizeClosed(int m) {
+		KVpair<Key, E>[] slots = C;
+		int start = freeSlot();
+		allocateClosed(m);
+		for (int s = 1; s <= slots.length; s++) {
+			int i = (start + s) % slots.length;
+			if (slots[i] != null)
+				place(slots[i]);
+		}
+		resizes++;
+	}
+
+	/**
+	 * @return an empty slot of C. Scanning from just after it visits every
+	 *         probe run from its start, so equal keys come oldest first.
+	 */
+	private int freeSlot() {
+		int i = 0;
+		while (C[i] != null)
+			i++;
+		return i;
+	}
+
+	/**
+	 * Robin Hood insert of r into C. A new record goes after records as far
+	 * from home as itself, and a displaced one before them, so records with
+	 * the same home, equal keys among them, keep their insertion order.
+	 */
+	private void place(KVpair<Key, E> r) {
+		int i = hash(r.key(), M);
+		int d = 0;
+		boolean displaced = false;
+		while (C[i] != null) {
+			if (probe[i] < d || (displaced && probe[i] == d)) { // Take the slot
+				KVpair<Key, E> t = C[i];
+				C[i] = r;
+				r = t;
+				int td = probe[i];
+				probe[i] = d;
+				d = td;
+				displaced = true;
+			}
+			i = (i + 1) % M;
+			d++;
+		}
+		C[i] = r;
+		probe[i] = d;
+	}
+
+	/** @return the slot of key k in C, or -1 */
+	private int slotOf(Key k) {
+		int i = hash(k, M);
+		for (int d = 0; C[i] != null && probe[i] >= d; d++) {
+			if (k.compareTo(C[i].key()) == 0)
+				return i;
+			i = (i + 1) % M;
+		}
+		return -1;
+	}
+
+	private E removeClosed(Key k) {
+		int i = slotOf(k);
+		if (i < 0)
+			return null;
+		E temp = C[i].value();
+		for (int j = (i + 1) % M; C[j] != null && probe[j] > 0; j = (j + 1) % M) {
+			C[i] = C[j]; // Backward shift
+			probe[i] = probe[j] - 1;
+			i = j;
+		}
+		C[i] = null;
+		n--;
+		return temp;
+	}
+
+	/** @return the record before the one with key k in a chain, or null */
+	private KVpair<Key, E> before(KVpair<Key, E> head, Key k) {
+		for (KVpair<Key, E> p = head; p.next() != null; p = p.next())
+			if (k.compareTo(p.next().key()) == 0)
+				return p;
+		return null;
+	}
+
+	/** Link a record at the end of a chain */
+	private void append(KVpair<Key, E> head, KVpair<Key, E> r) {
+		KVpair<Key, E> p = head;
+		while (p.next() != null)
+			p = p.next();
+		p.set_next(r);
+	}
+
+	/**
+	 * Switch to a table twice as large. The old table is drained a few
+	 * buckets per operation, so no single call pays for the whole copy.
+	 */
+	private void startRehash() {
+		old = T;
+		oldM = M;
+		rehashIdx = 0;
+		M = 2 * oldM;
+		T = newTable(M);
+		resizes++;
+	}
+
+	/** Move the next few buckets of the old table */
+	private void rehashSome() {
+		for (int s = 0; s < rehashStep && old != null; s++)
+			moveBucket();
+	}
+
+	private void finishRehash() {
+		while (old != null)
+			moveBucket();
+	}
+
+	/**
+	 * Move the next old bucket. Its records are older than any inserted
+	 * since the table grew, so they go to the front of their new chains,
+	 * keeping equal keys in insertion order.
+	 */
+	private void moveBucket() {
+		KVpair<Key, E> reversed = null;
+		for (KVpair<Key, E> p = old[rehashIdx].next(); p != null; ) {
+			KVpair<Key, E> next = p.next();
+			p.set_next(reversed);
+			reversed = p;
+			p = next;
+		}
+		while (reversed != null) { // Last first, so the fronts end up in order
+			KVpair<Key, E> next = reversed.next();
+			KVpair<Key, E> head = T[hash(reversed.key(), M)];
+			reversed.set_next(head.next());
+			head.set_next(reversed);
+			reversed = next;
+		}
+		old[rehashIdx] = null;
+		if (++rehashIdx == oldM)
+			old = null;
+	}
+
+	/** @return the slot of key k in a table of size m */
+	private int hash(Key k, int m) {
+		return strategy.index(k, m);
+	}
+}
@@ -0,0 +1,176 @@
+package ds;
+
+import java.util.Arrays;
+
+/**
+ * Dictionary specialized to int keys. Keys live in an int[] and values in a
+ * parallel array, with linear probing over a power-of-two table, so
+ * insertInt, findInt and removeInt neither box the key nor allocate. Removal
+ * shifts the following records of the probe run back instead of leaving
+ * tombstones. As in HashDictionary, inserting a key that is already present
+ * adds another record: find returns and remove takes the earliest one, and
+ * size counts them all.
+ */
+public class IntHashDictionary<E> implements Dictionary<Integer, E> {
+	private static final int defaultSize = 16;
+	private static final double maxLoad = 0.75;
+	private static final int maxTable = 1 << 30; // Largest table size
+	private int[] keys; // Key of each slot
+	private E[] values; // Value of each slot
+	private boolean[] used; // Whether a slot holds a record
+	private int mask; // Table size - 1
+	private int count; // # of records now in table
+	private int initial; // Table size to clear back to
+
+	public IntHashDictionary() {
+		this(defaultSize);
+	}
+
+	/** Make room for sz records before the first growth */
+	public IntHashDictionary(int sz) {
+		if (sz < 0)
+			throw new IllegalArgumentException("Size must not be negative");
+		initial = tableSizeFor(sz);
+		allocate(initial);
+	}
+
+	public void clear() { /** Reinitialize */
+		if (keys.length == initial) {
+			Arrays.fill(used, false);
+			Arrays.fill(values, null);
+		} else
+			allocate(initial);
+		count = 0;
+	}
+
+	/** Insert an element after any records with the same key */
+	public void insertInt(int k, E e) {
+		if (count + 1 > maxLoad * keys.length) {
+			if (keys.length < maxTable)
+				grow();
+			else if (count + 1 == keys.length) // Keep one slot free to end probes
+				throw new IllegalStateException("IntHashDictionary is full");
+		}
+		int i = hash(k) & mask;
+		while (used[i])
+			i = (i + 1) & mask;
+		keys[i] = k;
+		values[i] = e;
+		used[i] = true;
+		count++;
+	}
+
+	/** Find the earliest record with key value "k" */
+	public E findInt(int k) {
+		int i = slotOf(k);
+		return used[i] ? values[i] : null;
+	}
+
+	/** Remove the earliest record with key value "k" */
+	public E removeInt(int k) {
+		int i = slotOf(k);
+		if (!used[i])
+			return null;
+		E temp = values[i];
+		// Shift back every following record whose home slot is not in (i, j];
+		// records keep their order, so equal keys stay earliest first
+		for (int j = (i + 1) & mask; used[j]; j = (j + 1) & mask) {
+			int home = hash(keys[j]) & mask;
+			if (((j - home) & mask) >= ((j - i) & mask)) {
+				keys[i] = keys[j];
+				values[i] = values[j];
+				i = j;
+			}
+		}
+		used[i] = false;
+		values[i] = null;
+		count--;
+		return temp;
+	}
+
+	public void insert(Integer k, E e) {
+		insertInt(k.intValue(), e);
+	}
+
+	public E remove(Integer k) {
+		return removeInt(k.intValue());
+	}
+
+	public E find(Integer k) {
+		return findInt(k.intValue());
+	}
+
+	/** Return number of values in the hash table */
+	public int size() {
+		return count;
+	}
+
+	/** Already a closed hash table; nothing to change */
+	public void toClosedHash() {
+	}
+
+	/** Print every record as (key, value), in slot order */
+	public void print() {
+		for (int i = 0; i < keys.length; i++)
+			if (used[i])
+				System.out.printf("(%d, %s)\n", keys[i], values[i]);
+	}
+
+	/** @return the first slot holding k, or the empty slot that ends its probe run */
+	private int slotOf(int k) {
+		int i = hash(k) & mask;
+		while (used[i] && keys[i] != k)
+			i = (i + 1) & mask;
+		return i;
+	}
+
+	/** Spread the key bits so that runs of keys do not share low bits */
+	private static int hash(int k) {
+		int h = k * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private static int tableSizeFor(int sz) {
+		if (sz > maxLoad * maxTable)
+			throw new IllegalArgumentException("Size " + sz + " is too large");
+		int n = 2;
+		while (n * maxLoad < sz)
+			n <<= 1;
+		return n;
+	}
+
+	@SuppressWarnings("unchecked") // Allow the generic array allocation
+	private void allocate(int n) {
+		keys = new int[n];
+		values = (E[]) new Object[n];
+		used = new boolean[n];
+		mask = n - 1;
+	}
+
+	/**
+	 * Double the table and reinsert every record. The scan starts after an
+	 * empty slot, so each probe run, and with it each set of equal keys, is
+	 * reinserted in order.
+	 */
+	private void grow() {
+		int[] oldKeys = keys;
+		E[] oldValues = values;
+		boolean[] oldUsed = used;
+		int oldMask = mask;
+		int start = 0;
+		while (oldUsed[start])
+			start++;
+		allocate(2 * oldKeys.length);
+		for (int s = 1; s <= oldMask + 1; s++) {
+			int i = (start + s) & oldMask;
+			if (oldUsed[i]) {
+				int j = hash(oldKeys[i]) & mask;
+				while (used[j])
+					j = (j + 1) & mask;
+				keys[j] = oldKeys[i];
+				values[j] = oldValues[i];
+				used[j] = true;
+			}
+		}
+	}
+}
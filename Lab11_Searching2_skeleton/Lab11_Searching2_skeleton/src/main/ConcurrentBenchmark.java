@@ -0,0 +1,106 @@
+package main;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import ds.ConcurrentHashDictionary;
+
+/**
+ * Stress test and throughput benchmark for ConcurrentHashDictionary.
+ * Usage: ConcurrentBenchmark [threads] [ops per thread] [key range]
+ *
+ * The stress phase gives every thread its own keys to insert, find and
+ * remove while the table grows underneath, and checks each result. The
+ * throughput phase runs 90% find, 5% insert, 5% remove over shared keys
+ * with 1, 2, 4, ... threads.
+ */
+public class ConcurrentBenchmark {
+	public static void main(String[] args) throws InterruptedException {
+		int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+		int ops = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+		int range = args.length > 2 ? Integer.parseInt(args[2]) : 100000;
+
+		stress(threads, ops);
+		for (int t = 1; t <= threads; t *= 2)
+			throughput(t, ops, range);
+		if (Integer.bitCount(threads) != 1)
+			throughput(threads, ops, range);
+	}
+
+	/** Each thread owns the keys congruent to its id; all results are checked */
+	private static void stress(final int threads, final int ops) throws InterruptedException {
+		final ConcurrentHashDictionary<Integer, Integer> h = new ConcurrentHashDictionary<Integer, Integer>();
+		final AtomicReference<String> failure = new AtomicReference<String>();
+		final AtomicLong kept = new AtomicLong();
+		Thread[] workers = new Thread[threads];
+		for (int t = 0; t < threads; t++) {
+			final int id = t;
+			workers[t] = new Thread(new Runnable() {
+				public void run() {
+					int n = ops / 2;
+					for (int i = 0; i < n && failure.get() == null; i++) {
+						int key = i * threads + id;
+						h.insert(key, i);
+						Integer got = h.find(key);
+						if (got == null || got != i)
+							failure.set("find(" + key + ") = " + got + " after insert");
+						if (i % 2 == 1) {
+							got = h.remove(key - threads); // Previous key of this thread
+							if (got == null || got != i - 1)
+								failure.set("remove(" + (key - threads) + ") = " + got);
+						}
+					}
+					kept.addAndGet(n - n / 2);
+				}
+			});
+		}
+		for (Thread w : workers)
+			w.start();
+		for (Thread w : workers)
+			w.join();
+		if (failure.get() == null && h.size() != kept.get())
+			failure.set("size " + h.size() + ", expected " + kept.get());
+		System.out.printf("Stress: %d threads, %d resizes, %s\n", threads, h.resizes(),
+				failure.get() == null ? "OK" : "FAILED: " + failure.get());
+	}
+
+	private static void throughput(int threads, final int ops, final int range) throws InterruptedException {
+		final ConcurrentHashDictionary<Integer, String> h = new ConcurrentHashDictionary<Integer, String>();
+		for (int k = 0; k < range; k += 2)
+			h.insert(k, "v" + k);
+		final CountDownLatch start = new CountDownLatch(1);
+		Thread[] workers = new Thread[threads];
+		for (int t = 0; t < threads; t++) {
+			final long seed = t;
+			workers[t] = new Thread(new Runnable() {
+				public void run() {
+					Random r = new Random(seed);
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					for (int i = 0; i < ops; i++) {
+						int key = r.nextInt(range);
+						int op = r.nextInt(20);
+						if (op == 0)
+							h.insert(key, "w");
+						else if (op == 1)
+							h.remove(key);
+						else
+							h.find(key);
+					}
+				}
+			});
+			workers[t].start();
+		}
+		long begin = System.nanoTime();
+		start.countDown();
+		for (Thread w : workers)
+			w.join();
+		double seconds = (System.nanoTime() - begin) / 1e9;
+		System.out.printf("Throughput: %d threads, %.1f Mops/s\n", threads, threads * (double) ops / seconds / 1e6);
+	}
+}
@@ -0,0 +1,103 @@
+package ds.graph;
+
+import ds.queue.IndexedQueue;
+import ds.queue.QueueKind;
+
+/**
+ * Goal-directed point-to-point search: Dijkstra with vertices ordered by
+ * distance so far plus a lower bound on the distance left.
+ */
+public class AStar {
+    private IndexedQueue distQueue;
+    private int[] prev;
+    private double[] D;
+    private Graph G;
+    private Heuristic h;
+    private int[] touched;   // Vertices whose D/prev were set by the last query
+    private int numTouched;
+
+    /**
+     * Landmark bounds are integral on integral weights and consistent, so
+     * they get the same queue as Dijkstra; any other heuristic gets a
+     * binary heap, since a RadixDistanceQueue rejects fractional keys
+     */
+    public AStar(Graph G, Heuristic h) {
+        this(G, h, h instanceof Landmarks ? Dijkstra.pickKind(G) : QueueKind.BINARY);
+    }
+
+    /**
+     * @param kind queue to search with; RADIX needs a consistent heuristic
+     * whose bounds are integers whenever the weights are
+     */
+    public AStar(Graph G, Heuristic h, QueueKind kind) {
+        if (h instanceof Landmarks && ((Landmarks) h).n() != G.n())
+            throw new IllegalArgumentException("Landmarks are for " + ((Landmarks) h).n() + " vertices, not " + G.n());
+        D = new double[G.n()];
+        distQueue = kind.create(G.n());
+        prev = new int[G.n()];
+        touched = new int[G.n()];
+        for (int i = 0; i < G.n(); i++) {
+            D[i] = Double.POSITIVE_INFINITY;
+            prev[i] = -1;
+        }
+        this.G = G;
+        this.h = h;
+    }
+
+    /**
+     * @return the distance from start to end, or infinity if unreachable
+     */
+    public double calculateShortestPath(int start, int end) {
+        for (int i = 0; i < numTouched; i++) {   // Undo only what we wrote
+            D[touched[i]] = Double.POSITIVE_INFINITY;
+            prev[touched[i]] = -1;
+        }
+        numTouched = 0;
+        while (!distQueue.isEmpty()) distQueue.removeMin();
+
+        D[start] = 0;
+        touched[numTouched++] = start;
+        double bound = h.lowerBound(start, end);
+        if (bound == Double.POSITIVE_INFINITY) return bound;
+        distQueue.insert(start, bound);
+        NeighborCursor c = G.cursor();
+        while (!distQueue.isEmpty()) {
+            int v = distQueue.removeMin();
+            if (v == end) return D[end];
+            for (c.reset(v); c.advance(); ) {
+                int w = c.vertex();
+                double d = D[v] + c.weight();
+                if (d < D[w]) {
+                    if (D[w] == Double.POSITIVE_INFINITY) touched[numTouched++] = w;
+                    D[w] = d;
+                    prev[w] = v;
+                    double key = d + h.lowerBound(w, end);
+                    if (key == Double.POSITIVE_INFINITY) continue;   // end is out of w's reach
+                    if (!distQueue.contains(w)) distQueue.insert(w, key);
+                    else if (key < distQueue.distanceOf(w)) distQueue.decreaseDistance(w, key);
+                }
+            }
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @return the vertices on the path found by the last query, start first,
+     * or an empty array if end was not reached
+     */
+    public int[] pathTo(int end) {
+        if (D[end] == Double.POSITIVE_INFINITY) return new int[0];
+        int len = 1;
+        for (int v = end; prev[v] != -1; v = prev[v]) len++;
+        int[] path = new int[len];
+        for (int v = end; len > 0; v = prev[v]) path[--len] = v;
+        return path;
+    }
+
+    /**
+     * @return how many vertices the last query reached
+     */
+    public int touchedCount() {
+        return numTouched;
+    }
+}
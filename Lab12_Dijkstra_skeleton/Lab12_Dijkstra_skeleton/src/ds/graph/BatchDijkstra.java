@@ -0,0 +1,72 @@
+package ds.graph;
+
+import ds.queue.QueueKind;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs many single-source searches in parallel over one shared graph, for
+ * many-to-many distance tables. The graph is only read, through cursors.
+ * Each worker takes a BoundedDijkstra from a pool of idle ones and stops
+ * each search once all targets are settled; its epoch stamps make starting
+ * a new search cost nothing per vertex.
+ */
+public class BatchDijkstra {
+    private Graph G;
+    private QueueKind kind;
+    private ForkJoinPool pool;
+    private ConcurrentLinkedQueue<BoundedDijkstra> idle = new ConcurrentLinkedQueue<BoundedDijkstra>();
+
+    public BatchDijkstra(Graph G, QueueKind kind) {
+        this(G, kind, ForkJoinPool.commonPool());
+    }
+
+    public BatchDijkstra(Graph G, QueueKind kind, ForkJoinPool pool) {
+        this.G = G;
+        this.kind = kind;
+        this.pool = pool;
+    }
+
+    /**
+     * @return table[i][j] = distance from sources[i] to targets[j], or
+     * infinity if unreachable
+     */
+    public double[][] distanceTable(final int[] sources, final int[] targets) {
+        final double[][] table = new double[sources.length][];
+        final AtomicInteger nextSource = new AtomicInteger();
+        int workers = Math.min(pool.getParallelism(), sources.length);
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        for (int t = 0; t < workers; t++)
+            tasks.add(new Callable<Void>() {
+                public Void call() {
+                    BoundedDijkstra s = idle.poll();
+                    if (s == null) s = new BoundedDijkstra(G, kind);
+                    try {
+                        for (int i; (i = nextSource.getAndIncrement()) < sources.length; )
+                            table[i] = s.distancesTo(sources[i], targets);
+                    } finally {
+                        idle.add(s);
+                    }
+                    return null;
+                }
+            });
+        for (Future<Void> f : pool.invokeAll(tasks)) {
+            try {
+                f.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while computing distances", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Distance computation failed", e.getCause());
+            }
+        }
+        return table;
+    }
+}
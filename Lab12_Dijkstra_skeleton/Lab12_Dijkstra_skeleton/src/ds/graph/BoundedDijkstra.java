@@ -0,0 +1,144 @@
+package ds.graph;
+
+import ds.queue.IndexedQueue;
+import ds.queue.QueueKind;
+
+import java.util.Arrays;
+
+/**
+ * Dijkstra queries that stop early: once given targets are settled, once a
+ * distance radius is passed, or once k vertices are settled. Per-vertex
+ * state is validated by epoch stamps, so a query costs time proportional to
+ * the part of the graph it touches, not to n.
+ */
+public class BoundedDijkstra {
+    private Graph G;
+    private IndexedQueue distQueue;
+    private NeighborCursor cursor;
+    private double[] D;
+    private int[] prev;
+    private int[] stamp;          // D/prev of v are valid iff stamp[v] == epoch
+    private int[] targetStamp;    // v is a pending target iff == epoch
+    private int epoch;
+    private int[] settled = new int[16];
+    private int numSettled;
+
+    public BoundedDijkstra(Graph G) {
+        this(G, QueueKind.BINARY);
+    }
+
+    public BoundedDijkstra(Graph G, QueueKind kind) {
+        this.G = G;
+        distQueue = kind.create(G.n());
+        cursor = G.cursor();
+        D = new double[G.n()];
+        prev = new int[G.n()];
+        stamp = new int[G.n()];
+        targetStamp = new int[G.n()];
+    }
+
+    /**
+     * Search until every reachable target is settled
+     */
+    public SearchResult untilSettled(int source, int[] targets) {
+        settleTargets(source, targets);
+        return finish();
+    }
+
+    /**
+     * Search like untilSettled, but return only the targets' distances
+     * @return the distance to each target, in order, or infinity if
+     * unreachable
+     */
+    public double[] distancesTo(int source, int[] targets) {
+        settleTargets(source, targets);
+        while (!distQueue.isEmpty()) distQueue.removeMin();
+        double[] row = new double[targets.length];
+        for (int j = 0; j < targets.length; j++)   // Stamped targets are all settled
+            row[j] = stamp[targets[j]] == epoch ? D[targets[j]] : Double.POSITIVE_INFINITY;
+        return row;
+    }
+
+    private void settleTargets(int source, int[] targets) {
+        start(source);
+        int pending = 0;
+        for (int t : targets)
+            if (targetStamp[t] != epoch) {
+                targetStamp[t] = epoch;
+                pending++;
+            }
+        while (pending > 0 && !distQueue.isEmpty()) {
+            int v = settleNext();
+            if (targetStamp[v] == epoch) pending--;
+        }
+    }
+
+    /**
+     * Settle every vertex within distance radius of source
+     */
+    public SearchResult withinRadius(int source, double radius) {
+        start(source);
+        while (!distQueue.isEmpty() && distQueue.distanceOf(distQueue.minIndex()) <= radius)
+            settleNext();
+        return finish();
+    }
+
+    /**
+     * Settle the k vertices closest to source, source included
+     */
+    public SearchResult nearest(int source, int k) {
+        start(source);
+        while (numSettled < k && !distQueue.isEmpty())
+            settleNext();
+        return finish();
+    }
+
+    private void start(int source) {
+        if (++epoch == Integer.MAX_VALUE) {   // Stamps wrapped: clear once
+            Arrays.fill(stamp, 0);
+            Arrays.fill(targetStamp, 0);
+            epoch = 1;
+        }
+        numSettled = 0;
+        stamp[source] = epoch;
+        D[source] = 0;
+        prev[source] = -1;
+        distQueue.insert(source, 0);
+    }
+
+    /**
+     * Settle the closest queued vertex and relax its edges
+     */
+    private int settleNext() {
+        int v = distQueue.removeMin();
+        if (numSettled == settled.length) settled = Arrays.copyOf(settled, 2 * numSettled);
+        settled[numSettled++] = v;
+        for (cursor.reset(v); cursor.advance(); ) {
+            int w = cursor.vertex();
+            double d = D[v] + cursor.weight();
+            if (stamp[w] != epoch) {
+                stamp[w] = epoch;
+                D[w] = d;
+                prev[w] = v;
+                distQueue.insert(w, d);
+            } else if (d < D[w] && distQueue.contains(w)) {
+                D[w] = d;
+                prev[w] = v;
+                distQueue.decreaseDistance(w, d);
+            }
+        }
+        return v;
+    }
+
+    private SearchResult finish() {
+        while (!distQueue.isEmpty()) distQueue.removeMin();
+        int[] vertices = Arrays.copyOf(settled, numSettled);
+        double[] dist = new double[numSettled];
+        int[] pred = new int[numSettled];
+        for (int k = 0; k < numSettled; k++) {
+            dist[k] = D[vertices[k]];
+            pred[k] = prev[vertices[k]];
+        }
+        return new SearchResult(vertices, dist, pred);
+    }
+}
@@ -0,0 +1,283 @@
+package ds.graph;
+
+import java.util.Arrays;
+
+/**
+ * Immutable graph with compressed edges. Each adjacency list is sorted, so
+ * targets are stored as gaps from the previous target, written as
+ * variable-length ints (7 bits per byte, high bit = more bytes follow);
+ * most gaps fit in one or two bytes. Weights are kept as doubles, as
+ * floats, or as ints counting multiples of a fixed resolution.
+ * Random access (first, next, isEdge, weight) decodes the row in place
+ * from its start; walks should go through cursor(), which decodes as it
+ * advances.
+ */
+public class CompactGraph extends Graph {
+    /**
+     * How weights are stored
+     */
+    public enum WeightFormat {
+        DOUBLE,   // Exact, 8 bytes
+        FLOAT,    // 4 bytes, about 7 significant digits
+        FIXED     // 4 bytes, every weight must be a multiple of the resolution
+    }
+
+    private int n;
+    private int[] byteOffsets;    // Start of each row in targets, length n+1
+    private int[] edgeOffsets;    // Start of each row in the weight array, length n+1
+    private byte[] targets;       // Gap-coded targets
+    private WeightFormat format;
+    private double[] doubleWeights;
+    private float[] floatWeights;
+    private int[] fixedWeights;
+    private double resolution;    // Weight of one FIXED unit
+
+    public CompactGraph(Graph G, WeightFormat format) {
+        this(G, format, 1e-3);
+    }
+
+    /**
+     * @param resolution Weight of one unit when format is FIXED
+     * @throws IllegalArgumentException if format is FIXED and a weight is
+     * not a multiple of resolution, up to floating-point error
+     */
+    public CompactGraph(Graph G, WeightFormat format, double resolution) {
+        if (!(resolution > 0)) throw new IllegalArgumentException("resolution must be positive");
+        n = G.n();
+        this.format = format;
+        this.resolution = resolution;
+        int m = G.e();
+        byteOffsets = new int[n + 1];
+        edgeOffsets = new int[n + 1];
+        switch (format) {
+            case FLOAT:
+                floatWeights = new float[m];
+                break;
+            case FIXED:
+                fixedWeights = new int[m];
+                break;
+            default:
+                doubleWeights = new double[m];
+        }
+
+        byte[] out = new byte[Math.max(16, m + m / 2)];
+        int pos = 0, k = 0;
+        long[] row = new long[16];   // target << 32 | slot in rowW
+        double[] rowW = new double[16];
+        NeighborCursor c = G.cursor();
+        for (int v = 0; v < n; v++) {
+            int size = 0;
+            for (c.reset(v); c.advance(); size++) {
+                if (size == row.length) {
+                    row = Arrays.copyOf(row, 2 * size);
+                    rowW = Arrays.copyOf(rowW, 2 * size);
+                }
+                row[size] = (long) c.vertex() << 32 | size;
+                rowW[size] = c.weight();
+            }
+            Arrays.sort(row, 0, size);    // Usually already sorted
+            byteOffsets[v] = pos;
+            edgeOffsets[v] = k;
+            int last = 0;
+            for (int i = 0; i < size; i++) {
+                int w = (int) (row[i] >>> 32);
+                if (pos + 5 > out.length) out = Arrays.copyOf(out, 2 * out.length);
+                pos = writeVarInt(out, pos, w - last);
+                last = w;
+                setWeight(k++, rowW[(int) row[i]]);
+            }
+        }
+        byteOffsets[n] = pos;
+        edgeOffsets[n] = k;
+        targets = Arrays.copyOf(out, pos);
+    }
+
+    private static int writeVarInt(byte[] out, int pos, int value) {
+        while ((value & ~0x7F) != 0) {
+            out[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[pos++] = (byte) value;
+        return pos;
+    }
+
+    private void setWeight(int k, double w) {
+        switch (format) {
+            case FLOAT:
+                floatWeights[k] = (float) w;
+                break;
+            case FIXED:
+                long units = Math.round(w / resolution);
+                if (Math.abs(units) > Integer.MAX_VALUE)
+                    throw new IllegalArgumentException("Weight " + w + " does not fit at resolution " + resolution);
+                if (Math.abs(units * resolution - w) > 1e-9 * Math.abs(w))   // Also catches w rounding to 0
+                    throw new IllegalArgumentException("Weight " + w + " is not a multiple of " + resolution);
+                fixedWeights[k] = (int) units;
+                break;
+            default:
+                doubleWeights[k] = w;
+        }
+    }
+
+    private double weightAt(int k) {
+        switch (format) {
+            case FLOAT:
+                return floatWeights[k];
+            case FIXED:
+                return fixedWeights[k] * resolution;
+            default:
+                return doubleWeights[k];
+        }
+    }
+
+    /**
+     * @return bytes used by the target and weight arrays
+     */
+    public long edgeBytes() {
+        int m = edgeOffsets[n];
+        return targets.length + (long) m * (format == WeightFormat.DOUBLE ? 8 : 4);
+    }
+
+    @Override
+    public void init(int n) {
+        throw new UnsupportedOperationException("CompactGraph is immutable");
+    }
+
+    @Override
+    public int n() {
+        return n;
+    }
+
+    @Override
+    public int e() {
+        return edgeOffsets[n];
+    }
+
+    @Override
+    public long version() {
+        return 0;
+    }
+
+    /**
+     * @return the gap coded at pos
+     */
+    private int gapAt(int pos) {
+        int b = targets[pos];
+        if (b >= 0) return b;
+        int gap = b & 0x7F;
+        for (int shift = 7; ; shift += 7) {
+            b = targets[++pos];
+            gap |= (b & 0x7F) << shift;
+            if (b >= 0) return gap;
+        }
+    }
+
+    /**
+     * @return the position after the gap coded at pos
+     */
+    private int skipGap(int pos) {
+        while (targets[pos] < 0) pos++;   // High bit set: more bytes follow
+        return pos + 1;
+    }
+
+    /**
+     * @return the weight slot of edge v->w, or -1 if there is none
+     */
+    private int slotOf(int v, int w) {
+        int pos = byteOffsets[v], target = 0;
+        for (int k = edgeOffsets[v]; k < edgeOffsets[v + 1]; k++) {
+            target += gapAt(pos);
+            if (target >= w) return target == w ? k : -1;
+            pos = skipGap(pos);
+        }
+        return -1;
+    }
+
+    @Override
+    public int first(int v) {
+        if (edgeOffsets[v] == edgeOffsets[v + 1])
+            return n;   // No neighbor
+        return gapAt(byteOffsets[v]);
+    }
+
+    @Override
+    public int next(int v, int w) {
+        int pos = byteOffsets[v], target = 0;
+        for (int k = edgeOffsets[v], end = edgeOffsets[v + 1]; k < end; k++) {
+            target += gapAt(pos);
+            pos = skipGap(pos);
+            if (target == w) return k + 1 < end ? target + gapAt(pos) : n;
+            if (target > w) break;
+        }
+        return n; // No neighbor
+    }
+
+    @Override
+    public NeighborCursor cursor() {
+        return new RowCursor();
+    }
+
+    @Override
+    public void setEdge(int i, int j, double weight) {
+        throw new UnsupportedOperationException("CompactGraph is immutable");
+    }
+
+    @Override
+    public void delEdge(int i, int j) {
+        throw new UnsupportedOperationException("CompactGraph is immutable");
+    }
+
+    @Override
+    public boolean isEdge(int v, int w) {
+        return slotOf(v, w) >= 0;
+    }
+
+    @Override
+    public double weight(int i, int j) {
+        int k = slotOf(i, j);
+        return k >= 0 ? weightAt(k) : 0;
+    }
+
+    /**
+     * Decodes one gap per advance()
+     */
+    private class RowCursor extends NeighborCursor {
+        private int pos;      // Next byte to decode
+        private int k;        // Weight slot of the current neighbor
+        private int end;      // One past the row's last weight slot
+        private int target;   // Current neighbor
+
+        public void reset(int v) {
+            pos = byteOffsets[v];
+            k = edgeOffsets[v] - 1;
+            end = edgeOffsets[v + 1];
+            target = 0;
+        }
+
+        public boolean advance() {
+            if (++k >= end) return false;
+            byte[] t = targets;
+            int b = t[pos++];
+            if (b >= 0) {        // One-byte gap, the common case
+                target += b;
+                return true;
+            }
+            int gap = b & 0x7F;
+            for (int shift = 7; ; shift += 7) {
+                b = t[pos++];
+                gap |= (b & 0x7F) << shift;
+                if (b >= 0) break;
+            }
+            target += gap;
+            return true;
+        }
+
+        public int vertex() {
+            return target;
+        }
+
+        public double weight() {
+            return weightAt(k);
+        }
+    }
+}
@@ -0,0 +1,463 @@
+package ds.graph;
+
+import ds.queue.IndexedQueue;
+import ds.queue.QueueKind;
+
+import java.util.Arrays;
+
+/**
+ * Contraction Hierarchies for static graphs.
+ * Preprocessing contracts the vertices one at a time in order of
+ * importance, adding a shortcut u-w (through v) whenever removing v would
+ * lengthen the shortest u-w path. A query then runs a bidirectional search
+ * that only moves to more important vertices, which settles few vertices;
+ * shortcuts on the result are unpacked back into original edges.
+ */
+public class ContractionHierarchy {
+    private static final int WITNESS_SETTLE_LIMIT = 500;   // Bound on each witness search
+
+    private int n;
+    private int[] rank;            // Contraction order of each vertex
+
+    // Upward edges u->w (rank[u] < rank[w]), stored at u
+    private int[] upOffsets;
+    private int[] upTargets;
+    private double[] upWeights;
+    private int[] upMid;           // Bypassed vertex of a shortcut, -1 for a real edge
+
+    // Downward edges u->w (rank[u] > rank[w]), stored reversed at w
+    private int[] downOffsets;
+    private int[] downTargets;
+    private double[] downWeights;
+    private int[] downMid;
+
+    // Query state, reset by epoch stamps
+    private IndexedQueue fwdQueue;
+    private IndexedQueue bwdQueue;
+    private double[] fwdD;
+    private double[] bwdD;
+    private int[] fwdStamp;
+    private int[] bwdStamp;
+    private int[] fwdSlot;         // Up edge slot that reached each vertex
+    private int[] bwdSlot;         // Down edge slot that reached each vertex
+    private int epoch;
+    private int meet;              // Vertex where the last query's searches met
+    private double best;
+
+    /**
+     * Contract every vertex of G, searching with the queue Dijkstra would
+     * pick for G; G is only read
+     */
+    public ContractionHierarchy(Graph G) {
+        this(G, Dijkstra.pickKind(G));
+    }
+
+    /**
+     * Contract every vertex of G; witness searches and queries use queues
+     * of the given kind. G is only read
+     */
+    public ContractionHierarchy(Graph G, QueueKind kind) {
+        n = G.n();
+        rank = new int[n];
+        new Builder(G, kind).contractAll();
+
+        fwdQueue = kind.create(n);
+        bwdQueue = kind.create(n);
+        fwdD = new double[n];
+        bwdD = new double[n];
+        fwdStamp = new int[n];
+        bwdStamp = new int[n];
+        fwdSlot = new int[n];
+        bwdSlot = new int[n];
+    }
+
+    /**
+     * @return the distance from s to t, or infinity if unreachable
+     */
+    public double distance(int s, int t) {
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(fwdStamp, 0);
+            Arrays.fill(bwdStamp, 0);
+            epoch = 1;
+        }
+        best = Double.POSITIVE_INFINITY;
+        meet = -1;
+        reach(fwdQueue, fwdD, fwdStamp, fwdSlot, s, 0, -1);
+        reach(bwdQueue, bwdD, bwdStamp, bwdSlot, t, 0, -1);
+        while (!fwdQueue.isEmpty() || !bwdQueue.isEmpty()) {
+            double minF = fwdQueue.isEmpty() ? Double.POSITIVE_INFINITY : fwdQueue.distanceOf(fwdQueue.minIndex());
+            double minB = bwdQueue.isEmpty() ? Double.POSITIVE_INFINITY : bwdQueue.distanceOf(bwdQueue.minIndex());
+            if (Math.min(minF, minB) >= best) break;
+            if (minF <= minB) {
+                int v = fwdQueue.removeMin();
+                for (int k = upOffsets[v]; k < upOffsets[v + 1]; k++)
+                    reach(fwdQueue, fwdD, fwdStamp, fwdSlot, upTargets[k], fwdD[v] + upWeights[k], k);
+            } else {
+                int v = bwdQueue.removeMin();
+                for (int k = downOffsets[v]; k < downOffsets[v + 1]; k++)
+                    reach(bwdQueue, bwdD, bwdStamp, bwdSlot, downTargets[k], bwdD[v] + downWeights[k], k);
+            }
+        }
+        while (!fwdQueue.isEmpty()) fwdQueue.removeMin();
+        while (!bwdQueue.isEmpty()) bwdQueue.removeMin();
+        return best;
+    }
+
+    /**
+     * Offer distance d for w to one of the searches and update the best
+     * meeting point if the other search has reached w too
+     */
+    private void reach(IndexedQueue q, double[] D, int[] stamp, int[] slot, int w, double d, int k) {
+        if (stamp[w] != epoch) {
+            stamp[w] = epoch;
+            D[w] = d;
+            slot[w] = k;
+            q.insert(w, d);
+        } else if (d < D[w]) {
+            D[w] = d;
+            slot[w] = k;
+            if (q.contains(w)) q.decreaseDistance(w, d);
+        } else {
+            return;
+        }
+        if (fwdStamp[w] == epoch && bwdStamp[w] == epoch && fwdD[w] + bwdD[w] < best) {
+            best = fwdD[w] + bwdD[w];
+            meet = w;
+        }
+    }
+
+    /**
+     * @return the vertices on a shortest s-t path using original edges only,
+     * s first, or an empty array if t is unreachable
+     */
+    public int[] path(int s, int t) {
+        if (distance(s, t) == Double.POSITIVE_INFINITY) return new int[0];
+        int[] edges = new int[3 * 16];   // (from, to, mid) triples of hierarchy edges, s to t
+        int count = 0;
+        for (int v = meet; v != s; ) {   // Forward half, collected backwards
+            int k = fwdSlot[v];
+            int u = upSource(k);
+            edges = push(edges, count++, u, v, upMid[k]);
+            v = u;
+        }
+        reverseTriples(edges, count);
+        for (int v = meet; v != t; ) {
+            int k = bwdSlot[v];
+            int w = downSource(k);
+            edges = push(edges, count++, v, w, downMid[k]);
+            v = w;
+        }
+
+        int[] path = new int[16];
+        int len = 0;
+        path[len++] = s;
+        int[] stack = new int[3 * 16];
+        for (int e = 0; e < count; e++) {
+            int top = 0;
+            stack = push(stack, top++, edges[3 * e], edges[3 * e + 1], edges[3 * e + 2]);
+            while (top > 0) {
+                top--;
+                int a = stack[3 * top], b = stack[3 * top + 1], mid = stack[3 * top + 2];
+                if (mid == -1) {
+                    if (len == path.length) path = Arrays.copyOf(path, 2 * len);
+                    path[len++] = b;
+                } else {   // a->mid is a down edge at mid, mid->b an up edge
+                    stack = push(stack, top++, mid, b, upMid[findUp(mid, b)]);
+                    stack = push(stack, top++, a, mid, downMid[findDown(mid, a)]);
+                }
+            }
+        }
+        return Arrays.copyOf(path, len);
+    }
+
+    /**
+     * Print the path in the same form as Dijkstra: "PATH s t: dist v ... t"
+     */
+    public void printPath(int s, int t) {
+        StringBuffer ss = new StringBuffer();
+        ss.append("PATH ").append(s).append(' ').append(t).append(": ").append(distance(s, t));
+        for (int v : path(s, t))
+            ss.append(' ').append(v);
+        System.out.println(ss.toString());
+    }
+
+    /**
+     * @return the contraction order of v (0 = contracted first)
+     */
+    public int rank(int v) {
+        return rank[v];
+    }
+
+    /**
+     * @return the number of shortcut edges added by preprocessing
+     */
+    public int shortcuts() {
+        int count = 0;
+        for (int m : upMid) if (m != -1) count++;
+        for (int m : downMid) if (m != -1) count++;
+        return count;
+    }
+
+    private static int[] push(int[] triples, int at, int a, int b, int c) {
+        if (3 * at + 3 > triples.length) triples = Arrays.copyOf(triples, 2 * triples.length);
+        triples[3 * at] = a;
+        triples[3 * at + 1] = b;
+        triples[3 * at + 2] = c;
+        return triples;
+    }
+
+    private static void reverseTriples(int[] triples, int count) {
+        for (int i = 0, j = count - 1; i < j; i++, j--)
+            for (int f = 0; f < 3; f++) {
+                int t = triples[3 * i + f];
+                triples[3 * i + f] = triples[3 * j + f];
+                triples[3 * j + f] = t;
+            }
+    }
+
+    /**
+     * @return the vertex whose up row holds slot k
+     */
+    private int upSource(int k) {
+        return rowOf(upOffsets, k);
+    }
+
+    private int downSource(int k) {
+        return rowOf(downOffsets, k);
+    }
+
+    private static int rowOf(int[] offsets, int k) {
+        int lo = 0, hi = offsets.length - 2;
+        while (lo < hi) {   // Last row whose start is <= k
+            int mid = (lo + hi + 1) >>> 1;
+            if (offsets[mid] <= k) lo = mid;
+            else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    private int findUp(int v, int w) {
+        for (int k = upOffsets[v]; k < upOffsets[v + 1]; k++)
+            if (upTargets[k] == w) return k;
+        throw new IllegalStateException("Missing up edge " + v + "->" + w);
+    }
+
+    private int findDown(int v, int w) {
+        for (int k = downOffsets[v]; k < downOffsets[v + 1]; k++)
+            if (downTargets[k] == w) return k;
+        throw new IllegalStateException("Missing down edge " + w + "->" + v);
+    }
+
+    /**
+     * Growable edge list of one vertex in the working graph
+     */
+    private static class EdgeList {
+        int[] to = new int[4];
+        double[] w = new double[4];
+        int[] mid = new int[4];
+        int size;
+
+        void add(int v, double weight, int via) {
+            if (size == to.length) {
+                to = Arrays.copyOf(to, 2 * size);
+                w = Arrays.copyOf(w, 2 * size);
+                mid = Arrays.copyOf(mid, 2 * size);
+            }
+            to[size] = v;
+            w[size] = weight;
+            mid[size] = via;
+            size++;
+        }
+
+        int indexOf(int v) {
+            for (int k = 0; k < size; k++)
+                if (to[k] == v) return k;
+            return -1;
+        }
+
+        void remove(int v) {
+            int k = indexOf(v);
+            size--;
+            to[k] = to[size];
+            w[k] = w[size];
+            mid[k] = mid[size];
+        }
+    }
+
+    /**
+     * Preprocessing state: the working graph with shortcuts, and the scratch
+     * space of the witness searches. Contracting v unhooks it from its
+     * neighbors' lists, so what stays in out[v] and in[v] are exactly the
+     * edges to more important vertices.
+     */
+    private class Builder {
+        private EdgeList[] out;
+        private EdgeList[] in;
+        private int[] deletedNeighbors;
+        private IndexedQueue witnessQueue;
+        private double[] witnessD;
+        private int[] witnessStamp;
+        private int witnessEpoch;
+
+        Builder(Graph G, QueueKind kind) {
+            out = new EdgeList[n];
+            in = new EdgeList[n];
+            for (int v = 0; v < n; v++) {
+                out[v] = new EdgeList();
+                in[v] = new EdgeList();
+            }
+            NeighborCursor c = G.cursor();
+            for (int v = 0; v < n; v++)
+                for (c.reset(v); c.advance(); )
+                    if (c.vertex() != v) {
+                        out[v].add(c.vertex(), c.weight(), -1);
+                        in[c.vertex()].add(v, c.weight(), -1);
+                    }
+            deletedNeighbors = new int[n];
+            witnessQueue = kind.create(n);
+            witnessD = new double[n];
+            witnessStamp = new int[n];
+        }
+
+        /**
+         * Contract vertices by lazily updated priority, then split the
+         * edges into the upward and downward search graphs
+         */
+        void contractAll() {
+            IndexedQueue order = QueueKind.BINARY.create(n);   // Keys may be negative and go down
+            for (int v = 0; v < n; v++)
+                order.insert(v, priority(v));
+            int next = 0;
+            while (!order.isEmpty()) {
+                int v = order.removeMin();
+                double p = priority(v);
+                if (!order.isEmpty() && p > order.distanceOf(order.minIndex())) {
+                    order.insert(v, p);   // Became less attractive; retry later
+                    continue;
+                }
+                contract(v, false);
+                rank[v] = next++;
+            }
+            split();
+        }
+
+        /**
+         * Edge difference plus the number of contracted neighbors, which
+         * spreads contraction evenly over the graph
+         */
+        private double priority(int v) {
+            return contract(v, true) - in[v].size - out[v].size + deletedNeighbors[v];
+        }
+
+        /**
+         * Add the shortcuts that removing v requires, or only count them
+         * @return the number of shortcuts needed
+         */
+        private int contract(int v, boolean simulate) {
+            int shortcuts = 0;
+            for (int i = 0; i < in[v].size; i++) {
+                int u = in[v].to[i];
+                double viaV = in[v].w[i];
+                double limit = 0;
+                for (int j = 0; j < out[v].size; j++)
+                    if (out[v].to[j] != u)
+                        limit = Math.max(limit, viaV + out[v].w[j]);
+                if (limit == 0) continue;
+                witnessSearch(u, v, limit);
+                for (int j = 0; j < out[v].size; j++) {
+                    int w = out[v].to[j];
+                    if (w == u) continue;
+                    double d = viaV + out[v].w[j];
+                    if (witnessStamp[w] == witnessEpoch && witnessD[w] <= d) continue;
+                    shortcuts++;
+                    if (!simulate) addShortcut(u, w, d, v);
+                }
+            }
+            if (!simulate) {
+                for (int k = 0; k < in[v].size; k++) {
+                    out[in[v].to[k]].remove(v);
+                    deletedNeighbors[in[v].to[k]]++;
+                }
+                for (int k = 0; k < out[v].size; k++) {
+                    in[out[v].to[k]].remove(v);
+                    deletedNeighbors[out[v].to[k]]++;
+                }
+            }
+            return shortcuts;
+        }
+
+        /**
+         * Bounded Dijkstra from u in the remaining graph, avoiding v
+         */
+        private void witnessSearch(int u, int v, double limit) {
+            if (++witnessEpoch == Integer.MAX_VALUE) {
+                Arrays.fill(witnessStamp, 0);
+                witnessEpoch = 1;
+            }
+            witnessStamp[u] = witnessEpoch;
+            witnessD[u] = 0;
+            witnessQueue.insert(u, 0);
+            int settled = 0;
+            while (!witnessQueue.isEmpty()) {
+                int x = witnessQueue.removeMin();
+                if (witnessD[x] > limit || ++settled > WITNESS_SETTLE_LIMIT) break;
+                EdgeList e = out[x];
+                for (int k = 0; k < e.size; k++) {
+                    int y = e.to[k];
+                    if (y == v) continue;
+                    double d = witnessD[x] + e.w[k];
+                    if (witnessStamp[y] != witnessEpoch) {
+                        witnessStamp[y] = witnessEpoch;
+                        witnessD[y] = d;
+                        witnessQueue.insert(y, d);
+                    } else if (d < witnessD[y] && witnessQueue.contains(y)) {
+                        witnessD[y] = d;
+                        witnessQueue.decreaseDistance(y, d);
+                    }
+                }
+            }
+            while (!witnessQueue.isEmpty()) witnessQueue.removeMin();
+        }
+
+        private void addShortcut(int u, int w, double d, int v) {
+            int k = out[u].indexOf(w);
+            if (k >= 0) {   // Keep a single, shortest u->w edge
+                if (out[u].w[k] <= d) return;
+                out[u].w[k] = d;
+                out[u].mid[k] = v;
+                k = in[w].indexOf(u);
+                in[w].w[k] = d;
+                in[w].mid[k] = v;
+                return;
+            }
+            out[u].add(w, d, v);
+            in[w].add(u, d, v);
+        }
+
+        /**
+         * Build the CSR arrays of the upward and downward graphs
+         */
+        private void split() {
+            upOffsets = new int[n + 1];
+            downOffsets = new int[n + 1];
+            for (int v = 0; v < n; v++) {
+                upOffsets[v + 1] = upOffsets[v] + out[v].size;
+                downOffsets[v + 1] = downOffsets[v] + in[v].size;
+            }
+            upTargets = new int[upOffsets[n]];
+            upWeights = new double[upOffsets[n]];
+            upMid = new int[upOffsets[n]];
+            downTargets = new int[downOffsets[n]];
+            downWeights = new double[downOffsets[n]];
+            downMid = new int[downOffsets[n]];
+            for (int v = 0; v < n; v++) {
+                System.arraycopy(out[v].to, 0, upTargets, upOffsets[v], out[v].size);
+                System.arraycopy(out[v].w, 0, upWeights, upOffsets[v], out[v].size);
+                System.arraycopy(out[v].mid, 0, upMid, upOffsets[v], out[v].size);
+                System.arraycopy(in[v].to, 0, downTargets, downOffsets[v], in[v].size);
+                System.arraycopy(in[v].w, 0, downWeights, downOffsets[v], in[v].size);
+                System.arraycopy(in[v].mid, 0, downMid, downOffsets[v], in[v].size);
+            }
+        }
+    }
+}
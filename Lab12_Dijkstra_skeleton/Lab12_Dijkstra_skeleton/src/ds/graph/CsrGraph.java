@@ -0,0 +1,182 @@
+package ds.graph;
+
+/**
+ * Immutable graph stored in compressed sparse row (CSR) form.
+ * The neighbors of v are targets[offsets[v] .. offsets[v+1]-1], sorted by
+ * vertex index, with the matching weights in the same slots of weights.
+ */
+public class CsrGraph extends Graph {
+    private final int[] offsets;     // Row start of each vertex, length n+1
+    private final int[] targets;     // Destination of each edge
+    private final double[] weights;  // Weight of each edge
+
+    /**
+     * Copy the edges of G into CSR form
+     */
+    public CsrGraph(Graph G) {
+        int n = G.n();
+        offsets = new int[n + 1];
+        targets = new int[G.e()];
+        weights = new double[G.e()];
+        NeighborCursor c = G.cursor();
+        int k = 0;
+        for (int v = 0; v < n; v++) {
+            offsets[v] = k;
+            for (c.reset(v); c.advance(); k++) {
+                targets[k] = c.vertex();
+                weights[k] = c.weight();
+            }
+        }
+        offsets[n] = k;
+    }
+
+    /**
+     * @return a CSR graph holding every edge of G reversed, i.e. the
+     * neighbors of v are the vertices with an edge into v in G
+     */
+    public static CsrGraph reverse(Graph G) {
+        int n = G.n();
+        int[] offsets = new int[n + 1];
+        NeighborCursor c = G.cursor();
+        for (int v = 0; v < n; v++)         // Count in-degrees
+            for (c.reset(v); c.advance(); )
+                offsets[c.vertex() + 1]++;
+        for (int v = 0; v < n; v++)
+            offsets[v + 1] += offsets[v];
+        int[] fill = new int[n];
+        int[] targets = new int[offsets[n]];
+        double[] weights = new double[offsets[n]];
+        for (int v = 0; v < n; v++)         // Sources ascend, so rows stay sorted
+            for (c.reset(v); c.advance(); ) {
+                int k = offsets[c.vertex()] + fill[c.vertex()]++;
+                targets[k] = v;
+                weights[k] = c.weight();
+            }
+        return new CsrGraph(offsets, targets, weights);
+    }
+
+    /**
+     * Wrap already built CSR arrays; rows must be sorted by target
+     */
+    CsrGraph(int[] offsets, int[] targets, double[] weights) {
+        assert offsets[offsets.length - 1] == targets.length : "Offsets do not match edge count";
+        assert targets.length == weights.length : "Targets and weights differ in length";
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    @Override
+    public void init(int n) {
+        throw new UnsupportedOperationException("CsrGraph is immutable");
+    }
+
+    @Override
+    public int n() {
+        return offsets.length - 1;
+    }
+
+    @Override
+    public int e() {
+        return targets.length;
+    }
+
+    /**
+     * @return always 0; the edges never change
+     */
+    @Override
+    public long version() {
+        return 0;
+    }
+
+    /**
+     * @return v's first neighbor
+     */
+    @Override
+    public int first(int v) {
+        if (offsets[v] == offsets[v + 1])
+            return n();   // No neighbor
+        return targets[offsets[v]];
+    }
+
+    /**
+     * @return v's next neighbor after w
+     */
+    @Override
+    public int next(int v, int w) {
+        int k = find(v, w);
+        if (k >= 0 && k + 1 < offsets[v + 1])
+            return targets[k + 1];
+        return n(); // No neighbor
+    }
+
+    @Override
+    public NeighborCursor cursor() {
+        return new RowCursor();
+    }
+
+    @Override
+    public void setEdge(int i, int j, double weight) {
+        throw new UnsupportedOperationException("CsrGraph is immutable");
+    }
+
+    @Override
+    public void delEdge(int i, int j) {
+        throw new UnsupportedOperationException("CsrGraph is immutable");
+    }
+
+    @Override
+    public boolean isEdge(int v, int w) {
+        return find(v, w) >= 0;
+    }
+
+    /**
+     * @return an edge's weight
+     */
+    @Override
+    public double weight(int i, int j) {
+        int k = find(i, j);
+        if (k >= 0) return weights[k];
+        return 0;
+    }
+
+    /**
+     * @return the slot of edge (v, w), or -1 if there is no such edge
+     */
+    private int find(int v, int w) {
+        int lo = offsets[v];
+        int hi = offsets[v + 1] - 1;
+        while (lo <= hi) {   // Rows are sorted, so binary search
+            int mid = (lo + hi) >>> 1;
+            if (targets[mid] < w) lo = mid + 1;
+            else if (targets[mid] > w) hi = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    /**
+     * Cursor that scans a row of the CSR arrays
+     */
+    private class RowCursor extends NeighborCursor {
+        private int k;     // Slot of the current neighbor
+        private int end;   // One past the last slot of the row
+
+        public void reset(int v) {
+            k = offsets[v] - 1;
+            end = offsets[v + 1];
+        }
+
+        public boolean advance() {
+            return ++k < end;
+        }
+
+        public int vertex() {
+            return targets[k];
+        }
+
+        public double weight() {
+            return weights[k];
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package ds.graph;
+
+import java.util.Arrays;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Parallel single-source shortest paths by delta-stepping.
+ * Tentative distances are kept in buckets of width delta. The smallest
+ * bucket is emptied by relaxing its light edges (weight <= delta) in
+ * parallel until no vertex falls back into it, then the heavy edges of every
+ * vertex it settled are relaxed in parallel. Edge weights must be positive,
+ * as Graph.setEdge already requires.
+ */
+public class DeltaStepping {
+    private static final int THRESHOLD = 256;   // Vertices per leaf task
+
+    private int[] prev;
+    private double[] D;
+    private Graph G;
+    private double delta;
+    private ForkJoinPool pool;
+    private AtomicLongArray dist;   // Raw bits of D; for non-negative doubles
+                                    // they order the same way as the values
+
+    public DeltaStepping(Graph G, double delta) {
+        this(G, delta, ForkJoinPool.commonPool());
+    }
+
+    public DeltaStepping(Graph G, double delta, ForkJoinPool pool) {
+        if (!(delta > 0)) throw new IllegalArgumentException("delta must be positive");
+        D = new double[G.n()];
+        prev = new int[G.n()];
+        dist = new AtomicLongArray(G.n());
+        this.G = G;
+        this.delta = delta;
+        this.pool = pool;
+    }
+
+    /**
+     * Fill D and prev the same way Dijkstra.calculateShortestPath does
+     */
+    public void calculateShortestPath(int start) {
+        int n = G.n();
+        long inf = Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+        for (int i = 0; i < n; i++)
+            dist.set(i, inf);
+        dist.set(start, 0L);
+
+        TreeMap<Long, IntBuffer> buckets = new TreeMap<Long, IntBuffer>();
+        int[] seen = new int[n];     // Last phase that processed each vertex
+        int[] settledIn = new int[n];
+        int phase = 0;
+        IntBuffer first = new IntBuffer();
+        first.add(start);
+        buckets.put(0L, first);
+        while (!buckets.isEmpty()) {
+            long i = buckets.firstKey();
+            int round = ++phase;            // Tags vertices settled in bucket i
+            IntBuffer settled = new IntBuffer();
+            IntBuffer pending;
+            while ((pending = buckets.remove(i)) != null) {
+                phase++;
+                IntBuffer frontier = new IntBuffer();
+                for (int k = 0; k < pending.size; k++) {
+                    int v = pending.data[k];
+                    if (seen[v] == phase || bucketOf(v) != i) continue;  // Stale entry
+                    seen[v] = phase;
+                    frontier.add(v);
+                    if (settledIn[v] != round) {
+                        settledIn[v] = round;
+                        settled.add(v);
+                    }
+                }
+                schedule(buckets, pool.invoke(new Relax(frontier, 0, frontier.size, true)));
+            }
+            schedule(buckets, pool.invoke(new Relax(settled, 0, settled.size, false)));
+        }
+
+        for (int v = 0; v < n; v++) {
+            D[v] = Double.longBitsToDouble(dist.get(v));
+            prev[v] = -1;
+        }
+        AtomicIntegerArray parent = new AtomicIntegerArray(prev);
+        pool.invoke(new LinkTree(parent, 0, n));
+        for (int v = 0; v < n; v++)
+            prev[v] = parent.get(v);
+    }
+
+    /**
+     * @return the distances filled in by the last run, indexed by vertex
+     */
+    public double[] distances() {
+        return D;
+    }
+
+    /**
+     * @return the previous vertex on each shortest path (-1 if none)
+     */
+    public int[] predecessors() {
+        return prev;
+    }
+
+    private long bucketOf(int v) {
+        return (long) (Double.longBitsToDouble(dist.get(v)) / delta);
+    }
+
+    /**
+     * File each improved vertex under the bucket of its current distance
+     */
+    private void schedule(TreeMap<Long, IntBuffer> buckets, IntBuffer improved) {
+        for (int k = 0; k < improved.size; k++) {
+            int v = improved.data[k];
+            long b = bucketOf(v);
+            IntBuffer bucket = buckets.get(b);
+            if (bucket == null) buckets.put(b, bucket = new IntBuffer());
+            bucket.add(v);
+        }
+    }
+
+    /**
+     * Relax the light or heavy edges of vertices[lo..hi-1]
+     * @return the vertices whose distance went down
+     */
+    @SuppressWarnings("serial") // Tasks are never serialized
+    private class Relax extends RecursiveTask<IntBuffer> {
+        private final IntBuffer vertices;
+        private final int lo, hi;
+        private final boolean light;
+
+        Relax(IntBuffer vertices, int lo, int hi, boolean light) {
+            this.vertices = vertices;
+            this.lo = lo;
+            this.hi = hi;
+            this.light = light;
+        }
+
+        protected IntBuffer compute() {
+            if (hi - lo > THRESHOLD) {
+                int mid = (lo + hi) >>> 1;
+                Relax left = new Relax(vertices, lo, mid, light);
+                left.fork();
+                IntBuffer right = new Relax(vertices, mid, hi, light).compute();
+                IntBuffer result = left.join();
+                result.addAll(right);
+                return result;
+            }
+            IntBuffer improved = new IntBuffer();
+            NeighborCursor c = G.cursor();
+            for (int k = lo; k < hi; k++) {
+                int v = vertices.data[k];
+                double dv = Double.longBitsToDouble(dist.get(v));
+                for (c.reset(v); c.advance(); ) {
+                    if ((c.weight() <= delta) != light) continue;
+                    long d = Double.doubleToRawLongBits(dv + c.weight());
+                    if (dist.getAndAccumulate(c.vertex(), d, Math::min) > d)
+                        improved.add(c.vertex());
+                }
+            }
+            return improved;
+        }
+    }
+
+    /**
+     * Pick for each vertex a neighbor whose distance plus the edge weight
+     * equals its own; with positive weights these form a shortest-path tree
+     */
+    @SuppressWarnings("serial") // Tasks are never serialized
+    private class LinkTree extends RecursiveAction {
+        private final AtomicIntegerArray parent;
+        private final int lo, hi;
+
+        LinkTree(AtomicIntegerArray parent, int lo, int hi) {
+            this.parent = parent;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute() {
+            if (hi - lo > THRESHOLD) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new LinkTree(parent, lo, mid), new LinkTree(parent, mid, hi));
+                return;
+            }
+            NeighborCursor c = G.cursor();
+            for (int u = lo; u < hi; u++) {
+                if (D[u] == Double.POSITIVE_INFINITY) continue;
+                for (c.reset(u); c.advance(); )
+                    if (D[u] + c.weight() == D[c.vertex()] && D[u] < D[c.vertex()])
+                        parent.compareAndSet(c.vertex(), -1, u);
+            }
+        }
+    }
+
+    /**
+     * Growable int array; one per task, so no allocation per relaxation
+     */
+    private static class IntBuffer {
+        int[] data = new int[16];
+        int size;
+
+        void add(int v) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = v;
+        }
+
+        void addAll(IntBuffer other) {
+            if (size + other.size > data.length)
+                data = Arrays.copyOf(data, Math.max(size + other.size, size * 2));
+            System.arraycopy(other.data, 0, data, size, other.size);
+            size += other.size;
+        }
+    }
+}
@@ -1,22 +1,376 @@
 package ds.graph;
 
-import ds.queue.DistanceQueue;
+import ds.queue.IndexedQueue;
+import ds.queue.QueueKind;
 
 public class Dijkstra {
-    private DistanceQueue distQueue;
+    /**
+     * Graphs whose weights are all integers below this bound get a
+     * RadixDistanceQueue by default; path sums stay exact as doubles
+     */
+    public static final double INTEGER_WEIGHT_BOUND = 1 << 20;
+
+    private IndexedQueue distQueue;
     private int[] prev;
     private double[] D;
     private Graph G;
+    private QueueKind kind;         // Queue used by every search
+    private boolean autoKind;       // kind follows the weights of the searched graph
+    private Graph kindOf;           // Graph whose weights kind was picked for
+    private long kindVersion;       // kindOf.version() at that time
+
+    // State of the backward search, allocated on the first point-to-point query
+    private Graph reverse;          // Reverse adjacency of reverseOf
+    private Graph reverseOf;
+    private long reverseVersion;    // reverseOf.version() when reverse was built
+    private IndexedQueue backQueue;
+    private double[] backD;
+    private int[] succ;             // Next vertex towards the target
+
+    // State of the dynamic mode, allocated on the first edge update
+    private int source = -1;        // Root of the tree in D/prev, -1 if none
+    private long treeVersion;       // G.version() that D/prev are valid for
+    private Graph inEdges;          // Mutable reverse of G, kept in step
+    private int[] affected;         // Vertices cut off by a weight increase
+    private boolean[] inAffected;
 
     public Dijkstra(Graph G) {
+        this(G, pickKind(G));
+        autoKind = true;
+        kindOf = G;
+        kindVersion = G.version();
+    }
+
+    public Dijkstra(Graph G, QueueKind kind) {
     	D = new double[G.n()];
-    	distQueue = new DistanceQueue(G.n());
+    	distQueue = kind.create(G.n());
     	prev = new int[G.n()];
     	this.G= G;
+    	this.kind = kind;
+    }
+
+    /**
+     * @return true if every weight of G is a non-negative integer below
+     * INTEGER_WEIGHT_BOUND
+     */
+    private static boolean hasSmallIntegerWeights(Graph G) {
+        NeighborCursor c = G.cursor();
+        for (int v = 0; v < G.n(); v++)
+            for (c.reset(v); c.advance(); ) {
+                double w = c.weight();
+                if (w < 0 || w >= INTEGER_WEIGHT_BOUND || w != Math.rint(w)) return false;
+            }
+        return true;
+    }
+
+    /**
+     * @return the queue kind a search over G uses by default
+     */
+    static QueueKind pickKind(Graph G) {
+        return hasSmallIntegerWeights(G) ? QueueKind.RADIX : QueueKind.BINARY;
+    }
+
+    /**
+     * If the queue was picked automatically, pick it again for a graph other
+     * than the one it was picked for, or after that graph's edges changed
+     */
+    private void checkKind(Graph G) {
+        if (!autoKind || (G == kindOf && G.version() == kindVersion)) return;
+        kindOf = G;
+        kindVersion = G.version();
+        QueueKind k = pickKind(G);
+        if (k != kind) {
+            kind = k;
+            distQueue = kind.create(D.length);
+            backQueue = null;
+        }
     }
 
     public void calculateShortestPath(Graph G, int start) {
-        // Fill your code
+        checkKind(G);
+        if (G instanceof ReorderedGraph) {   // Search the renumbered copy
+            ReorderedGraph R = (ReorderedGraph) G;
+            search(R.inner(), R.toInternal(start));
+            R.restore(D, prev);
+        } else {
+            search(G, start);
+        }
+        if (G == this.G) {
+            source = start;
+            treeVersion = G.version();
+        }
+    }
+
+    private void search(Graph G, int start) {
+        for (int i = 0; i < G.n(); i++) {
+            D[i] = Double.POSITIVE_INFINITY;
+            prev[i] = -1;
+        }
+        D[start] = 0;
+        distQueue.insert(start, 0);
+        NeighborCursor c = G.cursor();
+        while (!distQueue.isEmpty()) {
+            int v = distQueue.removeMin();
+            for (c.reset(v); c.advance(); ) {
+                int w = c.vertex();
+                double d = D[v] + c.weight();
+                if (d < D[w]) {     // Relax edge (v, w)
+                    if (distQueue.contains(w)) distQueue.decreaseDistance(w, d);
+                    else distQueue.insert(w, d);
+                    D[w] = d;
+                    prev[w] = v;
+                }
+            }
+        }
+    }
+
+    /**
+     * Change the weight of edge (i, j), adding it if needed, and repair the
+     * tree of the last calculateShortestPath(G, start) on this Dijkstra's
+     * graph. A decrease is propagated from j only; an increase of a tree
+     * edge recomputes only the subtree below j.
+     * @return the number of vertices whose distance was recomputed
+     */
+    public int updateEdge(int i, int j, double weight) {
+        checkTree();
+        double old = G.isEdge(i, j) ? G.weight(i, j) : Double.POSITIVE_INFINITY;
+        long before = G.version();
+        G.setEdge(i, j, weight);
+        if (G.version() == before) return 0;   // Rejected by setEdge
+        inEdges.setEdge(j, i, weight);
+        treeVersion = G.version();
+        if (kind == QueueKind.RADIX
+                && (weight >= INTEGER_WEIGHT_BOUND || weight != Math.rint(weight))) {
+            kind = QueueKind.BINARY;             // Radix keys must stay integral
+            distQueue = kind.create(G.n());
+            backQueue = null;
+        }
+        if (weight < old) return decrease(i, j, weight);
+        if (weight > old) return increase(i, j);
+        return 0;
+    }
+
+    /**
+     * Delete edge (i, j) and repair the tree like updateEdge
+     * @return the number of vertices whose distance was recomputed
+     */
+    public int removeEdge(int i, int j) {
+        checkTree();
+        if (!G.isEdge(i, j)) return 0;
+        G.delEdge(i, j);
+        inEdges.delEdge(j, i);
+        treeVersion = G.version();
+        return increase(i, j);
+    }
+
+    /**
+     * Make sure D/prev hold a tree of the current graph and the reverse
+     * edges exist
+     */
+    private void checkTree() {
+        if (source < 0)
+            throw new IllegalStateException("No shortest-path tree to repair; call calculateShortestPath first");
+        if (treeVersion != G.version()) {   // G was changed behind our back
+            calculateShortestPath(G, source);
+            inEdges = null;
+        }
+        if (inEdges == null) {
+            GraphBuilder builder = new GraphBuilder(G.n());
+            NeighborCursor c = G.cursor();
+            for (int v = 0; v < G.n(); v++)
+                for (c.reset(v); c.advance(); )
+                    builder.addEdge(c.vertex(), v, c.weight());
+            inEdges = builder.build();
+            affected = new int[G.n()];
+            inAffected = new boolean[G.n()];
+        }
+    }
+
+    /**
+     * Edge (i, j) got cheaper: push the improvement outwards from j
+     */
+    private int decrease(int i, int j, double weight) {
+        double d = D[i] + weight;
+        if (!(d < D[j])) return 0;
+        D[j] = d;
+        prev[j] = i;
+        distQueue.insert(j, d);
+        return settle();
+    }
+
+    /**
+     * Edge (i, j) got dearer or vanished: if it was a tree edge, clear the
+     * subtree below j and rebuild it from its unaffected in-neighbors
+     */
+    private int increase(int i, int j) {
+        if (prev[j] != i) return 0;   // Not on any shortest path
+        int count = 0;
+        affected[count++] = j;
+        inAffected[j] = true;
+        NeighborCursor c = G.cursor();
+        for (int k = 0; k < count; k++) {   // Collect the subtree
+            int v = affected[k];
+            for (c.reset(v); c.advance(); ) {
+                int w = c.vertex();
+                if (prev[w] == v && !inAffected[w]) {
+                    inAffected[w] = true;
+                    affected[count++] = w;
+                }
+            }
+        }
+        for (int k = 0; k < count; k++) {
+            D[affected[k]] = Double.POSITIVE_INFINITY;
+            prev[affected[k]] = -1;
+        }
+        NeighborCursor in = inEdges.cursor();
+        for (int k = 0; k < count; k++) {   // Best way in from outside
+            int v = affected[k];
+            for (in.reset(v); in.advance(); ) {
+                int u = in.vertex();
+                if (inAffected[u]) continue;
+                double d = D[u] + in.weight();
+                if (d < D[v]) {
+                    D[v] = d;
+                    prev[v] = u;
+                }
+            }
+            if (D[v] < Double.POSITIVE_INFINITY) distQueue.insert(v, D[v]);
+        }
+        settle();
+        for (int k = 0; k < count; k++)
+            inAffected[affected[k]] = false;
+        return count;
+    }
+
+    /**
+     * Run Dijkstra from whatever is queued, counting improved vertices
+     */
+    private int settle() {
+        int touched = 0;
+        NeighborCursor c = G.cursor();
+        while (!distQueue.isEmpty()) {
+            int v = distQueue.removeMin();
+            touched++;
+            for (c.reset(v); c.advance(); ) {
+                int w = c.vertex();
+                double d = D[v] + c.weight();
+                if (d < D[w]) {
+                    if (distQueue.contains(w)) distQueue.decreaseDistance(w, d);
+                    else distQueue.insert(w, d);
+                    D[w] = d;
+                    prev[w] = v;
+                }
+            }
+        }
+        return touched;
+    }
+
+    /**
+     * @return the distances filled in by the last query, indexed by vertex
+     */
+    public double[] distances() {
+        return D;
+    }
+
+    /**
+     * @return the previous vertex on each shortest path (-1 if none)
+     */
+    public int[] predecessors() {
+        return prev;
+    }
+
+    /**
+     * Point-to-point query: search forward from start and backward from end
+     * at the same time, and stop once the two frontiers meet. prev is filled
+     * along the shortest path, so printPathToEnd(G, end) works afterwards.
+     * @return the distance from start to end, or infinity if unreachable
+     */
+    public double calculateShortestPath(Graph G, int start, int end) {
+        int n = G.n();
+        checkKind(G);
+        if (reverseOf != G || reverseVersion != G.version()) {
+            reverse = CsrGraph.reverse(G);
+            reverseOf = G;
+            reverseVersion = G.version();
+        }
+        if (backQueue == null) {
+            backQueue = kind.create(n);
+            backD = new double[n];
+            succ = new int[n];
+        }
+        source = -1;    // D/prev will no longer hold a full tree
+        for (int i = 0; i < n; i++) {
+            D[i] = backD[i] = Double.POSITIVE_INFINITY;
+            prev[i] = succ[i] = -1;
+        }
+        D[start] = 0;
+        backD[end] = 0;
+        distQueue.insert(start, 0);
+        backQueue.insert(end, 0);
+
+        double best = start == end ? 0 : Double.POSITIVE_INFINITY;
+        int meetFrom = -1, meetTo = -1;   // Edge joining the two trees
+        NeighborCursor fwd = G.cursor();
+        NeighborCursor bwd = reverse.cursor();
+        while (!distQueue.isEmpty() && !backQueue.isEmpty()) {
+            double topF = distQueue.distanceOf(distQueue.minIndex());
+            double topB = backQueue.distanceOf(backQueue.minIndex());
+            if (topF + topB >= best) break;   // Frontiers have met
+            if (distQueue.size() <= backQueue.size()) {
+                int v = distQueue.removeMin();
+                for (fwd.reset(v); fwd.advance(); ) {
+                    int w = fwd.vertex();
+                    double d = D[v] + fwd.weight();
+                    if (d < D[w]) {
+                        if (distQueue.contains(w)) distQueue.decreaseDistance(w, d);
+                        else distQueue.insert(w, d);
+                        D[w] = d;
+                        prev[w] = v;
+                    }
+                    if (d + backD[w] < best) {
+                        best = d + backD[w];
+                        meetFrom = v;
+                        meetTo = w;
+                    }
+                }
+            } else {
+                int v = backQueue.removeMin();
+                for (bwd.reset(v); bwd.advance(); ) {
+                    int w = bwd.vertex();     // Original edge is (w, v)
+                    double d = backD[v] + bwd.weight();
+                    if (d < backD[w]) {
+                        if (backQueue.contains(w)) backQueue.decreaseDistance(w, d);
+                        else backQueue.insert(w, d);
+                        backD[w] = d;
+                        succ[w] = v;
+                    }
+                    if (D[w] + d < best) {
+                        best = D[w] + d;
+                        meetFrom = w;
+                        meetTo = v;
+                    }
+                }
+            }
+        }
+        drain(distQueue);
+        drain(backQueue);
+
+        if (meetFrom >= 0) {   // Splice the backward half onto prev
+            D[meetTo] = best - backD[meetTo];
+            prev[meetTo] = meetFrom;
+            for (int v = meetTo; v != end; v = succ[v]) {
+                D[succ[v]] = D[v] + (backD[v] - backD[succ[v]]);
+                prev[succ[v]] = v;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Empty a queue left over from a search that stopped early
+     */
+    private static void drain(IndexedQueue q) {
+        while (!q.isEmpty()) q.removeMin();
     }
 
     private void printPathToEnd(Graph G, int end) {
@@ -1,12 +1,16 @@
 package ds.graph;
 
-import ds.list.LinkedList;
+import ds.list.DLink;
+import ds.list.DLinkPool;
+import ds.list.DLinkedList;
 
 import java.lang.reflect.Array;
 
 public class Graph {
-    private LinkedList<Edge>[] vertex;            // The vertex list
+    private DLinkedList<Edge>[] vertex;           // The vertex list
+    private DLinkPool<Edge> pool;                 // Nodes shared by all lists
     private int numEdge;                   // Number of edges
+    private long version;                  // Bumped on every edge change
 
     public Graph() {
     }
@@ -16,9 +20,10 @@ public class Graph {
     }
 
     public void init(int n) {
-        vertex = (LinkedList<Edge>[]) Array.newInstance(LinkedList.class, n);
+        vertex = (DLinkedList<Edge>[]) Array.newInstance(DLinkedList.class, n);
+        pool = new DLinkPool<Edge>();
         for (int i = 0; i < n; i++)
-            vertex[i] = new LinkedList<Edge>();
+            vertex[i] = new DLinkedList<Edge>(pool);
         numEdge = 0;
     }
 
@@ -30,6 +35,14 @@ public class Graph {
         return numEdge;
     }
 
+    /**
+     * @return a counter that changes whenever an edge is set or deleted, so
+     * results computed on this graph can tell whether they are stale
+     */
+    public long version() {
+        return version;
+    }
+
     /**
      * @return v's first neighbor
      */
@@ -55,6 +68,13 @@ public class Graph {
         return vertex.length; // No neighbor
     }
 
+    /**
+     * @return a new cursor over the neighbors of any vertex of this graph
+     */
+    public NeighborCursor cursor() {
+        return new ListCursor(vertex);
+    }
+
     /**
      * Set the weight for an edge
      */
@@ -67,8 +87,9 @@ public class Graph {
             return;
         }
 
+        version++;
         if (isEdge(i, j)) { // Edge already exists in graph
-            delEdge(i, j);
+            vertex[i].remove();
             vertex[i].insert(currEdge);
         } else { // Keep neighbors sorted by vertex index
             numEdge++;
@@ -80,6 +101,16 @@ public class Graph {
         }
     }
 
+    /**
+     * Append an edge after v's last neighbor. Used by GraphBuilder, which
+     * keeps each list sorted and free of duplicates.
+     */
+    void appendEdge(int i, int j, double weight) {
+        vertex[i].append(new Edge(j, weight));
+        numEdge++;
+        version++;
+    }
+
     /**
      * Check whether a given weight has a negative value
     */
@@ -92,7 +123,11 @@ public class Graph {
      * Delete an edge
      */
     public void delEdge(int i, int j) {
-        // Fill your code
+        if (isEdge(i, j)) {
+            vertex[i].remove();
+            numEdge--;
+            version++;
+        }
     }
 
     /**
@@ -116,4 +151,37 @@ public class Graph {
         if (isEdge(i, j)) return vertex[i].getValue().weight();
         return 0;
     }
+
+    /**
+     * Cursor that follows the links of an adjacency list directly
+     */
+    private static class ListCursor extends NeighborCursor {
+        private final DLinkedList<Edge>[] vertex;
+        private DLink<Edge> curr;    // Link of the current neighbor
+        private DLink<Edge> ahead;   // Link the next advance() moves to
+
+        ListCursor(DLinkedList<Edge>[] vertex) {
+            this.vertex = vertex;
+        }
+
+        public void reset(int v) {
+            curr = null;
+            ahead = vertex[v].firstLink();
+        }
+
+        public boolean advance() {
+            curr = ahead;
+            if (curr == null) return false;
+            ahead = curr.next();
+            return true;
+        }
+
+        public int vertex() {
+            return curr.element().vertex();
+        }
+
+        public double weight() {
+            return curr.element().weight();
+        }
+    }
 }
@@ -0,0 +1,108 @@
+package ds.graph;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Collects edges into primitive buffers and builds a graph in one go,
+ * instead of paying Graph.setEdge's sorted-list walk per edge.
+ * Edges are grouped by source with a stable counting sort, then each row is
+ * sorted by target in parallel. Of repeated (i, j) pairs the last one added
+ * wins, and negative weights are rejected, as with setEdge.
+ */
+public class GraphBuilder {
+    private int n;
+    private int m;              // Number of edges collected
+    private int[] src = new int[1024];
+    private int[] dst = new int[1024];
+    private double[] wt = new double[1024];
+
+    public GraphBuilder(int n) {
+        if (n < 0) throw new IllegalArgumentException();
+        this.n = n;
+    }
+
+    /**
+     * Queue edge (i, j); a later call for the same pair replaces it
+     */
+    public void addEdge(int i, int j, double weight) {
+        assert weight != 0 : "May not set weight to 0";
+        if (i < 0 || i >= n || j < 0 || j >= n) throw new IndexOutOfBoundsException();
+        if (weight < 0) {
+            System.out.println("The weight has a negative value.");
+            return;
+        }
+        if (m == src.length) {
+            src = Arrays.copyOf(src, 2 * m);
+            dst = Arrays.copyOf(dst, 2 * m);
+            wt = Arrays.copyOf(wt, 2 * m);
+        }
+        src[m] = i;
+        dst[m] = j;
+        wt[m] = weight;
+        m++;
+    }
+
+    /**
+     * @return the number of edges added so far, repeats included
+     */
+    public int size() {
+        return m;
+    }
+
+    /**
+     * @return an immutable CSR graph of the edges added so far
+     */
+    public CsrGraph buildCsr() {
+        final int[] offsets = new int[n + 1];
+        for (int k = 0; k < m; k++) offsets[src[k] + 1]++;
+        for (int v = 0; v < n; v++) offsets[v + 1] += offsets[v];
+        int[] fill = Arrays.copyOf(offsets, n);
+        final long[] keys = new long[m];      // target << 32 | input order in row
+        final double[] rowWt = new double[m];
+        for (int k = 0; k < m; k++) {
+            int slot = fill[src[k]]++;
+            keys[slot] = (long) dst[k] << 32 | (slot - offsets[src[k]]);
+            rowWt[slot] = wt[k];
+        }
+
+        final int[] kept = new int[n + 1];    // Distinct targets per row
+        IntStream.range(0, n).parallel().forEach(v -> {
+            int lo = offsets[v], hi = offsets[v + 1];
+            Arrays.sort(keys, lo, hi);
+            int out = lo;
+            for (int k = lo; k < hi; k++) {
+                if (k + 1 < hi && keys[k + 1] >>> 32 == keys[k] >>> 32)
+                    continue;   // A later write of the same edge follows
+                keys[out++] = keys[k];
+            }
+            kept[v + 1] = out - lo;
+        });
+        for (int v = 0; v < n; v++) kept[v + 1] += kept[v];
+
+        final int[] targets = new int[kept[n]];
+        final double[] weights = new double[kept[n]];
+        IntStream.range(0, n).parallel().forEach(v -> {
+            for (int k = 0; k < kept[v + 1] - kept[v]; k++) {
+                long key = keys[offsets[v] + k];
+                targets[kept[v] + k] = (int) (key >>> 32);
+                weights[kept[v] + k] = rowWt[offsets[v] + (int) key];
+            }
+        });
+        return new CsrGraph(kept, targets, weights);
+    }
+
+    /**
+     * @return a mutable Graph of the edges added so far; each adjacency list
+     * is appended in order, so no per-edge search is needed
+     */
+    public Graph build() {
+        CsrGraph csr = buildCsr();
+        Graph G = new Graph(n);
+        NeighborCursor c = csr.cursor();
+        for (int v = 0; v < n; v++)
+            for (c.reset(v); c.advance(); )
+                G.appendEdge(v, c.vertex(), c.weight());
+        return G;
+    }
+}
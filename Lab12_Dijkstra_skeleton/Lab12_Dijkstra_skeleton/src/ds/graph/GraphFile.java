@@ -0,0 +1,167 @@
+package ds.graph;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.StringTokenizer;
+
+/**
+ * Binary on-disk graph format, little-endian:
+ * <pre>
+ *   int  magic "GRF1"     long offsetsAt
+ *   int  format version   long targetsAt
+ *   int  n                long weightsAt
+ *   int  e
+ *   int[n+1]  offsets     (CSR row starts)
+ *   int[e]    targets     (rows sorted by target)
+ *   double[e] weights     (8-byte aligned)
+ * </pre>
+ * map() hands the sections straight to a MappedGraph.
+ */
+public class GraphFile {
+    private static final int MAGIC = 0x31465247;   // "GRF1" read little-endian
+    private static final int FORMAT = 1;
+    private static final int HEADER = 40;
+    private static final int CHUNK = 1 << 16;      // Write buffer size
+
+    private GraphFile() {
+    }
+
+    /**
+     * Write G to path in the binary format
+     */
+    public static void write(Graph G, String path) throws IOException {
+        int n = G.n();
+        long e = G.e();
+        long offsetsAt = HEADER;
+        long targetsAt = offsetsAt + 4L * (n + 1);
+        long weightsAt = (targetsAt + 4L * e + 7) & ~7L;
+        try (RandomAccessFile file = new RandomAccessFile(path, "rw");
+             FileChannel ch = file.getChannel()) {
+            file.setLength(0);
+            ByteBuffer buf = ByteBuffer.allocateDirect(CHUNK).order(ByteOrder.LITTLE_ENDIAN);
+            buf.putInt(MAGIC).putInt(FORMAT).putInt(n).putInt((int) e);
+            buf.putLong(offsetsAt).putLong(targetsAt).putLong(weightsAt);
+
+            NeighborCursor c = G.cursor();
+            int k = 0;
+            for (int v = 0; v < n; v++) {
+                buf = put(ch, buf, 4).putInt(k);
+                for (c.reset(v); c.advance(); ) k++;
+            }
+            buf = put(ch, buf, 4).putInt(k);
+            for (int v = 0; v < n; v++)
+                for (c.reset(v); c.advance(); )
+                    buf = put(ch, buf, 4).putInt(c.vertex());
+            if (weightsAt > targetsAt + 4L * e)     // Align the weights
+                buf = put(ch, buf, 4).putInt(0);
+            for (int v = 0; v < n; v++)
+                for (c.reset(v); c.advance(); )
+                    buf = put(ch, buf, 8).putDouble(c.weight());
+            flush(ch, buf);
+        }
+    }
+
+    /**
+     * Make room for size more bytes, flushing to the channel if needed
+     */
+    private static ByteBuffer put(FileChannel ch, ByteBuffer buf, int size) throws IOException {
+        if (buf.remaining() < size) flush(ch, buf);
+        return buf;
+    }
+
+    private static void flush(FileChannel ch, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) ch.write(buf);
+        buf.clear();
+    }
+
+    /**
+     * Convert a graph given as Main's text commands ("n 4", "edge 0 1 0.1",
+     * ...) to the binary format. Edges get setEdge's semantics: the last
+     * weight given for a pair wins and negative weights are rejected.
+     * Commands other than n and edge are skipped.
+     */
+    public static void convert(String textPath, String binPath) throws IOException {
+        GraphBuilder builder = null;
+        try (BufferedReader in = new BufferedReader(new FileReader(textPath))) {
+            Tokens tok = new Tokens(in);
+            for (String command; (command = tok.next()) != null; ) {
+                if ("n".equals(command)) {
+                    if (builder != null) throw new IOException("More than one graph in " + textPath);
+                    builder = new GraphBuilder(Integer.parseInt(tok.next()));
+                } else if ("edge".equals(command)) {
+                    if (builder == null) throw new IOException("Edge before n in " + textPath);
+                    int src = Integer.parseInt(tok.next());
+                    int dst = Integer.parseInt(tok.next());
+                    builder.addEdge(src, dst, Double.parseDouble(tok.next()));
+                } else if ("shortestpath".equals(command)) {
+                    tok.next();
+                }
+            }
+        }
+        if (builder == null) throw new IOException("No graph in " + textPath);
+        write(builder.buildCsr(), binPath);
+    }
+
+    /**
+     * Whitespace-separated tokens across lines
+     */
+    private static class Tokens {
+        private BufferedReader in;
+        private StringTokenizer line = new StringTokenizer("");
+
+        Tokens(BufferedReader in) {
+            this.in = in;
+        }
+
+        String next() throws IOException {
+            while (!line.hasMoreTokens()) {
+                String s = in.readLine();
+                if (s == null) return null;
+                line = new StringTokenizer(s);
+            }
+            return line.nextToken();
+        }
+    }
+
+    /**
+     * Memory-map a graph file; the graph is usable as soon as this returns
+     */
+    public static MappedGraph map(String path) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path, "r");
+             FileChannel ch = file.getChannel()) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && ch.read(header) >= 0) ;
+            header.flip();
+            if (header.remaining() < HEADER || header.getInt() != MAGIC)
+                throw new IOException("Not a graph file: " + path);
+            if (header.getInt() != FORMAT)
+                throw new IOException("Unsupported graph file version: " + path);
+            int n = header.getInt();
+            int e = header.getInt();
+            long offsetsAt = header.getLong();
+            long targetsAt = header.getLong();
+            long weightsAt = header.getLong();
+            if (weightsAt + 8L * e > ch.size())
+                throw new IOException("Truncated graph file: " + path);
+            // The mappings stay valid after the channel is closed
+            return new MappedGraph(
+                    section(ch, offsetsAt, 4L * (n + 1)).asIntBuffer(),
+                    section(ch, targetsAt, 4L * e).asIntBuffer(),
+                    section(ch, weightsAt, 8L * e).asDoubleBuffer());
+        }
+    }
+
+    private static ByteBuffer section(FileChannel ch, long at, long size) throws IOException {
+        if (size > Integer.MAX_VALUE)
+            throw new IOException("Graph file section exceeds 2 GB");
+        MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, at, size);
+        return buf.order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
@@ -0,0 +1,340 @@
+package ds.graph;
+
+import java.util.Arrays;
+
+/**
+ * Immutable state of a VersionedGraph: a CSR base plus an overlay of the
+ * rows changed since the base was built. An overlay row lists, sorted by
+ * target, the edges of a vertex that were set (with their new weight) or
+ * deleted (weight NaN); everything else is read from the base. Rows are
+ * indexed by vertex in chunks of about sqrt(n), so a change copies one
+ * chunk and the array of chunk references, whatever the overlay size.
+ * Snapshots are never modified, so any number of threads may read one.
+ */
+public class GraphSnapshot extends Graph {
+    private final CsrGraph base;
+    private final Row[][] overlay;   // Changed rows by vertex; null chunks and rows are unchanged
+    private final int shift;         // log2 of the chunk size
+    private final int numEdge;
+    private final int overlaySize;   // Entries over all rows
+    private final long version;
+
+    GraphSnapshot(CsrGraph base, long version) {
+        this(base, new Row[(base.n() >>> chunkShift(base.n())) + 1][], chunkShift(base.n()),
+                base.e(), 0, version);
+    }
+
+    private GraphSnapshot(CsrGraph base, Row[][] overlay, int shift, int numEdge,
+                          int overlaySize, long version) {
+        this.base = base;
+        this.overlay = overlay;
+        this.shift = shift;
+        this.numEdge = numEdge;
+        this.overlaySize = overlaySize;
+        this.version = version;
+    }
+
+    /**
+     * @return log2 of a power-of-two chunk size near sqrt(n), at least 64
+     */
+    private static int chunkShift(int n) {
+        return Math.max(6, (33 - Integer.numberOfLeadingZeros(n)) / 2);
+    }
+
+    /**
+     * @return v's overlay row, or null if v is unchanged
+     */
+    private Row row(int v) {
+        Row[] chunk = overlay[v >>> shift];
+        return chunk == null ? null : chunk[v & ((1 << shift) - 1)];
+    }
+
+    /**
+     * @return a snapshot with edge (i, j) set to weight
+     */
+    GraphSnapshot withEdge(int i, int j, double weight) {
+        Row row = row(i);
+        int before = row == null ? 0 : row.targets.length;
+        Row changed = (row == null ? Row.EMPTY : row).with(j, weight);
+        return derive(i, changed, before, isEdge(i, j) ? numEdge : numEdge + 1);
+    }
+
+    /**
+     * @return a snapshot without edge (i, j); this one if there is none
+     */
+    GraphSnapshot withoutEdge(int i, int j) {
+        if (!isEdge(i, j)) return this;
+        Row row = row(i);
+        int before = row == null ? 0 : row.targets.length;
+        if (row == null) row = Row.EMPTY;
+        Row changed = base.isEdge(i, j) ? row.with(j, Double.NaN) : row.without(j);
+        return derive(i, changed, before, numEdge - 1);
+    }
+
+    private GraphSnapshot derive(int i, Row changed, int before, int numEdge) {
+        Row[][] copy = overlay.clone();
+        Row[] chunk = copy[i >>> shift];
+        chunk = chunk == null ? new Row[1 << shift] : chunk.clone();
+        chunk[i & ((1 << shift) - 1)] = changed.targets.length == 0 ? null : changed;
+        copy[i >>> shift] = chunk;
+        return new GraphSnapshot(base, copy, shift, numEdge,
+                overlaySize - before + changed.targets.length, version + 1);
+    }
+
+    /**
+     * @return true if this snapshot and s are overlays of the same base
+     */
+    boolean sharesBase(GraphSnapshot s) {
+        return base == s.base;
+    }
+
+    /**
+     * Move this snapshot onto a new base holding the edges of folded, an
+     * earlier snapshot on the same base. Rows shared with folded are already
+     * in the new base; rows changed since are diffed against it.
+     * @return a snapshot with the same edges and version as this one
+     */
+    GraphSnapshot rebase(CsrGraph newBase, GraphSnapshot folded) {
+        Row[][] moved = new Row[overlay.length][];
+        int size = 0;
+        NeighborCursor now = cursor();
+        NeighborCursor then = newBase.cursor();
+        for (int c = 0; c < overlay.length; c++) {
+            if (overlay[c] == folded.overlay[c]) continue;   // Untouched since folded
+            for (int k = 0; k < 1 << shift; k++) {
+                int v = (c << shift) + k;
+                if (v >= n()) break;
+                if (row(v) == folded.row(v)) continue;
+                Row r = diff(now, then, v);
+                if (r.targets.length == 0) continue;
+                if (moved[c] == null) moved[c] = new Row[1 << shift];
+                moved[c][k] = r;
+                size += r.targets.length;
+            }
+        }
+        return new GraphSnapshot(newBase, moved, shift, numEdge, size, version);
+    }
+
+    /**
+     * @return the overlay row that turns row v of then's graph into row v
+     * of now's graph
+     */
+    private static Row diff(NeighborCursor now, NeighborCursor then, int v) {
+        int[] targets = new int[8];
+        double[] weights = new double[8];
+        int size = 0;
+        now.reset(v);
+        then.reset(v);
+        boolean hasNow = now.advance(), hasThen = then.advance();
+        while (hasNow || hasThen) {
+            int a = hasNow ? now.vertex() : Integer.MAX_VALUE;
+            int b = hasThen ? then.vertex() : Integer.MAX_VALUE;
+            double w;
+            if (a == b && now.weight() == then.weight()) {
+                hasNow = now.advance();
+                hasThen = then.advance();
+                continue;
+            }
+            if (size == targets.length) {
+                targets = Arrays.copyOf(targets, 2 * size);
+                weights = Arrays.copyOf(weights, 2 * size);
+            }
+            if (a <= b) {              // Set now, or set to a new weight
+                w = now.weight();
+                hasNow = now.advance();
+                if (a == b) hasThen = then.advance();
+            } else {                   // Gone since
+                w = Double.NaN;
+                a = b;
+                hasThen = then.advance();
+            }
+            targets[size] = a;
+            weights[size++] = w;
+        }
+        return new Row(Arrays.copyOf(targets, size), Arrays.copyOf(weights, size));
+    }
+
+    /**
+     * @return the number of overlay entries, i.e. edges changed since the
+     * base was built
+     */
+    public int overlaySize() {
+        return overlaySize;
+    }
+
+    @Override
+    public void init(int n) {
+        throw new UnsupportedOperationException("GraphSnapshot is immutable");
+    }
+
+    @Override
+    public int n() {
+        return base.n();
+    }
+
+    @Override
+    public int e() {
+        return numEdge;
+    }
+
+    /**
+     * @return the number of changes made before this snapshot was taken;
+     * compaction keeps the version, as the edges stay the same
+     */
+    @Override
+    public long version() {
+        return version;
+    }
+
+    /**
+     * @return v's first neighbor
+     */
+    @Override
+    public int first(int v) {
+        NeighborCursor c = cursor();
+        c.reset(v);
+        return c.advance() ? c.vertex() : n();   // n() if no neighbor
+    }
+
+    /**
+     * @return v's next neighbor after w
+     */
+    @Override
+    public int next(int v, int w) {
+        NeighborCursor c = cursor();
+        for (c.reset(v); c.advance(); )
+            if (c.vertex() == w) return c.advance() ? c.vertex() : n();
+        return n(); // No neighbor
+    }
+
+    @Override
+    public NeighborCursor cursor() {
+        return new MergeCursor();
+    }
+
+    @Override
+    public void setEdge(int i, int j, double weight) {
+        throw new UnsupportedOperationException("GraphSnapshot is immutable");
+    }
+
+    @Override
+    public void delEdge(int i, int j) {
+        throw new UnsupportedOperationException("GraphSnapshot is immutable");
+    }
+
+    @Override
+    public boolean isEdge(int v, int w) {
+        Row row = row(v);
+        if (row != null) {
+            int k = Arrays.binarySearch(row.targets, w);
+            if (k >= 0) return !Double.isNaN(row.weights[k]);
+        }
+        return base.isEdge(v, w);
+    }
+
+    /**
+     * @return an edge's weight
+     */
+    @Override
+    public double weight(int i, int j) {
+        Row row = row(i);
+        if (row != null) {
+            int k = Arrays.binarySearch(row.targets, j);
+            if (k >= 0) return Double.isNaN(row.weights[k]) ? 0 : row.weights[k];
+        }
+        return base.weight(i, j);
+    }
+
+    /**
+     * Changed edges of one vertex, sorted by target. Rows are shared
+     * between snapshots, so they are copied rather than modified.
+     */
+    private static class Row {
+        static final Row EMPTY = new Row(new int[0], new double[0]);
+
+        final int[] targets;
+        final double[] weights;   // NaN marks a deleted base edge
+
+        Row(int[] targets, double[] weights) {
+            this.targets = targets;
+            this.weights = weights;
+        }
+
+        Row with(int j, double weight) {
+            int k = Arrays.binarySearch(targets, j);
+            if (k >= 0) {
+                double[] w = weights.clone();
+                w[k] = weight;
+                return new Row(targets, w);
+            }
+            k = -k - 1;
+            int[] t = new int[targets.length + 1];
+            double[] w = new double[t.length];
+            System.arraycopy(targets, 0, t, 0, k);
+            System.arraycopy(weights, 0, w, 0, k);
+            t[k] = j;
+            w[k] = weight;
+            System.arraycopy(targets, k, t, k + 1, targets.length - k);
+            System.arraycopy(weights, k, w, k + 1, targets.length - k);
+            return new Row(t, w);
+        }
+
+        Row without(int j) {
+            int k = Arrays.binarySearch(targets, j);
+            if (k < 0) return this;
+            int[] t = new int[targets.length - 1];
+            double[] w = new double[t.length];
+            System.arraycopy(targets, 0, t, 0, k);
+            System.arraycopy(weights, 0, w, 0, k);
+            System.arraycopy(targets, k + 1, t, k, t.length - k);
+            System.arraycopy(weights, k + 1, w, k, t.length - k);
+            return new Row(t, w);
+        }
+    }
+
+    /**
+     * Cursor that merges a base row with its overlay row, overlay first
+     */
+    private class MergeCursor extends NeighborCursor {
+        private final NeighborCursor inBase = base.cursor();
+        private boolean baseLeft;   // inBase is on a neighbor not yet returned
+        private Row row;
+        private int k;              // Next overlay slot
+        private int curr;           // Current neighbor and its weight
+        private double currWeight;
+
+        public void reset(int v) {
+            inBase.reset(v);
+            baseLeft = inBase.advance();
+            row = row(v);
+            k = 0;
+        }
+
+        public boolean advance() {
+            while (true) {
+                int b = baseLeft ? inBase.vertex() : Integer.MAX_VALUE;
+                int o = row != null && k < row.targets.length ? row.targets[k] : Integer.MAX_VALUE;
+                if (b == Integer.MAX_VALUE && o == Integer.MAX_VALUE) return false;
+                if (o <= b) {
+                    if (o == b) baseLeft = inBase.advance();   // Overlay replaces it
+                    curr = o;
+                    currWeight = row.weights[k++];
+                    if (Double.isNaN(currWeight)) continue;    // Deleted
+                    return true;
+                }
+                curr = b;
+                currWeight = inBase.weight();
+                baseLeft = inBase.advance();
+                return true;
+            }
+        }
+
+        public int vertex() {
+            return curr;
+        }
+
+        public double weight() {
+            return currWeight;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package ds.graph;
+
+/**
+ * Lower bound on the remaining distance for goal-directed search.
+ * lowerBound must never overestimate the true distance from v to target;
+ * bounds that are also consistent let AStar settle each vertex once.
+ */
+public interface Heuristic {
+    /**
+     * @return a lower bound on the distance from v to target
+     */
+    public double lowerBound(int v, int target);
+}
@@ -0,0 +1,167 @@
+package ds.graph;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * ALT heuristic: distances to and from a few landmark vertices give lower
+ * bounds through the triangle inequality,
+ * d(v, t) >= d(v, L) - d(t, L) and d(v, t) >= d(L, t) - d(L, v).
+ */
+public class Landmarks implements Heuristic {
+    private static final int MAGIC = 0x414C5431;   // "ALT1"
+
+    private int n;             // Vertices of the graph the tables were built on
+    private int e;             // Edges of that graph
+    private int[] landmarks;
+    private double[][] from;   // from[l][v] = distance from landmark l to v
+    private double[][] to;     // to[l][v] = distance from v to landmark l
+
+    private Landmarks(int n, int e, int[] landmarks, double[][] from, double[][] to) {
+        this.n = n;
+        this.e = e;
+        this.landmarks = landmarks;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Pick k landmarks by farthest selection and precompute their distance
+     * tables with Dijkstra on G and on its reverse.
+     */
+    public static Landmarks select(Graph G, int k) {
+        if (k < 0) throw new IllegalArgumentException("k must not be negative");
+        int n = G.n();
+        k = Math.min(k, n);
+        if (k == 0)   // No vertices or no landmarks: every bound is 0
+            return new Landmarks(n, G.e(), new int[0], new double[0][], new double[0][]);
+        int[] landmarks = new int[k];
+        double[][] from = new double[k][];
+        double[][] to = new double[k][];
+        Graph reverse = CsrGraph.reverse(G);
+        Dijkstra forward = new Dijkstra(G);
+        Dijkstra backward = new Dijkstra(reverse);
+
+        double[] nearest = new double[n];   // Distance to the closest landmark so far
+        forward.calculateShortestPath(G, 0);
+        for (int v = 0; v < n; v++)
+            nearest[v] = Double.POSITIVE_INFINITY;
+        int pick = farthest(forward.distances());
+        for (int l = 0; l < k; l++) {
+            landmarks[l] = pick;
+            forward.calculateShortestPath(G, pick);
+            from[l] = forward.distances().clone();
+            backward.calculateShortestPath(reverse, pick);
+            to[l] = backward.distances().clone();
+            for (int v = 0; v < n; v++)
+                nearest[v] = Math.min(nearest[v], from[l][v]);
+            pick = farthest(nearest);
+        }
+        return new Landmarks(n, G.e(), landmarks, from, to);
+    }
+
+    /**
+     * @return the vertex with the largest distance; unreached vertices count
+     * as farthest, so other components get a landmark too
+     */
+    private static int farthest(double[] dist) {
+        int best = 0;
+        for (int v = 1; v < dist.length; v++)
+            if (dist[v] > dist[best]) best = v;
+        return best;
+    }
+
+    /**
+     * @return the ALT bound, or infinity if target reaches a landmark that v
+     * cannot, so v cannot reach target; that keeps the bound consistent
+     */
+    public double lowerBound(int v, int target) {
+        double bound = 0;
+        for (int l = 0; l < landmarks.length; l++) {
+            double a = to[l][v], b = to[l][target];
+            if (b != Double.POSITIVE_INFINITY) {
+                if (a == Double.POSITIVE_INFINITY) return Double.POSITIVE_INFINITY;
+                bound = Math.max(bound, a - b);
+            }
+            a = from[l][target];
+            b = from[l][v];
+            if (a != Double.POSITIVE_INFINITY && b != Double.POSITIVE_INFINITY)
+                bound = Math.max(bound, a - b);
+        }
+        return bound;
+    }
+
+    /**
+     * @return the landmark vertices
+     */
+    public int[] landmarks() {
+        return landmarks;
+    }
+
+    /**
+     * @return the number of vertices of the graph the tables were built on
+     */
+    public int n() {
+        return n;
+    }
+
+    /**
+     * Write the tables as a header (magic, n, e, k), the landmark ids, then
+     * the from and to rows as raw doubles
+     */
+    public void save(String path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(n);
+            out.writeInt(e);
+            out.writeInt(landmarks.length);
+            for (int l : landmarks) out.writeInt(l);
+            for (double[][] table : new double[][][]{from, to})
+                for (double[] row : table)
+                    for (double d : row) out.writeDouble(d);
+        }
+    }
+
+    /**
+     * Read tables written by save
+     */
+    public static Landmarks load(String path) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(path)))) {
+            if (in.readInt() != MAGIC) throw new IOException("Not a landmark file: " + path);
+            int n = in.readInt();
+            int e = in.readInt();
+            int k = in.readInt();
+            if (n < 0 || e < 0 || k < 0 || k > n) throw new IOException("Corrupt landmark header: " + path);
+            int[] landmarks = new int[k];
+            for (int l = 0; l < k; l++) {
+                landmarks[l] = in.readInt();
+                if (landmarks[l] < 0 || landmarks[l] >= n) throw new IOException("Corrupt landmark id: " + path);
+            }
+            double[][] from = new double[k][n];
+            double[][] to = new double[k][n];
+            for (double[][] table : new double[][][]{from, to})
+                for (double[] row : table)
+                    for (int v = 0; v < n; v++) row[v] = in.readDouble();
+            return new Landmarks(n, e, landmarks, from, to);
+        }
+    }
+
+    /**
+     * Read tables written by save for G
+     * @throws IOException if they were built on a graph of another size
+     */
+    public static Landmarks load(String path, Graph G) throws IOException {
+        Landmarks L = load(path);
+        if (L.n != G.n() || L.e != G.e())
+            throw new IOException("Landmarks of " + path + " are for " + L.n + " vertices and " + L.e
+                    + " edges, not " + G.n() + " and " + G.e());
+        return L;
+    }
+}
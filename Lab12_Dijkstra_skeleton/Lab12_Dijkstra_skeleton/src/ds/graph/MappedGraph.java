@@ -0,0 +1,125 @@
+package ds.graph;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Read-only CSR graph whose arrays live in a memory-mapped GraphFile.
+ * Nothing is copied onto the heap; pages are read in by the OS on first
+ * touch. Buffers are only read with absolute gets, so any number of threads
+ * may query the graph at once.
+ */
+public class MappedGraph extends Graph {
+    private final int n;
+    private final IntBuffer offsets;     // Row start of each vertex, length n+1
+    private final IntBuffer targets;
+    private final DoubleBuffer weights;
+
+    MappedGraph(IntBuffer offsets, IntBuffer targets, DoubleBuffer weights) {
+        this.n = offsets.capacity() - 1;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    @Override
+    public void init(int n) {
+        throw new UnsupportedOperationException("MappedGraph is read-only");
+    }
+
+    @Override
+    public int n() {
+        return n;
+    }
+
+    @Override
+    public int e() {
+        return targets.capacity();
+    }
+
+    @Override
+    public long version() {
+        return 0;
+    }
+
+    @Override
+    public int first(int v) {
+        int k = offsets.get(v);
+        if (k == offsets.get(v + 1))
+            return n;   // No neighbor
+        return targets.get(k);
+    }
+
+    @Override
+    public int next(int v, int w) {
+        int k = find(v, w);
+        if (k >= 0 && k + 1 < offsets.get(v + 1))
+            return targets.get(k + 1);
+        return n; // No neighbor
+    }
+
+    @Override
+    public NeighborCursor cursor() {
+        return new RowCursor();
+    }
+
+    @Override
+    public void setEdge(int i, int j, double weight) {
+        throw new UnsupportedOperationException("MappedGraph is read-only");
+    }
+
+    @Override
+    public void delEdge(int i, int j) {
+        throw new UnsupportedOperationException("MappedGraph is read-only");
+    }
+
+    @Override
+    public boolean isEdge(int v, int w) {
+        return find(v, w) >= 0;
+    }
+
+    @Override
+    public double weight(int i, int j) {
+        int k = find(i, j);
+        if (k >= 0) return weights.get(k);
+        return 0;
+    }
+
+    /**
+     * @return the slot of edge (v, w), or -1 if there is no such edge
+     */
+    private int find(int v, int w) {
+        int lo = offsets.get(v);
+        int hi = offsets.get(v + 1) - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int t = targets.get(mid);
+            if (t < w) lo = mid + 1;
+            else if (t > w) hi = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    private class RowCursor extends NeighborCursor {
+        private int k;     // Slot of the current neighbor
+        private int end;   // One past the last slot of the row
+
+        public void reset(int v) {
+            k = offsets.get(v) - 1;
+            end = offsets.get(v + 1);
+        }
+
+        public boolean advance() {
+            return ++k < end;
+        }
+
+        public int vertex() {
+            return targets.get(k);
+        }
+
+        public double weight() {
+            return weights.get(k);
+        }
+    }
+}
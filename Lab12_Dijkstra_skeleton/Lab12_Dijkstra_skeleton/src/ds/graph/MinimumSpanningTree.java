@@ -0,0 +1,269 @@
+package ds.graph;
+
+import ds.queue.IndexedQueue;
+import ds.queue.QueueKind;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Minimum spanning forest of a graph whose edges are taken as undirected:
+ * an edge (i, j) connects i and j whichever way it is stored. If the graph
+ * holds both (i, j) and (j, i), the lighter one may be chosen.
+ * Disconnected graphs give one tree per component.
+ */
+public class MinimumSpanningTree {
+    private static final int THRESHOLD = 4096;   // Edges or vertices per leaf task
+
+    private Graph G;
+    private ForkJoinPool pool;
+    private QueueKind kind;   // Queue prim() grows trees with
+
+    public MinimumSpanningTree(Graph G) {
+        this(G, ForkJoinPool.commonPool());
+    }
+
+    public MinimumSpanningTree(Graph G, ForkJoinPool pool) {
+        this(G, pool, QueueKind.BINARY);
+    }
+
+    /**
+     * @param kind queue for prim(); not RADIX, since Prim's keys are edge
+     * weights and may fall below the last one removed
+     */
+    public MinimumSpanningTree(Graph G, ForkJoinPool pool, QueueKind kind) {
+        if (kind == QueueKind.RADIX) throw new IllegalArgumentException("Prim's keys are not monotone");
+        this.G = G;
+        this.pool = pool;
+        this.kind = kind;
+    }
+
+    /**
+     * Grow a tree from each unreached vertex in turn, always adding the
+     * lightest edge out of the tree. Sequential.
+     */
+    public SpanningTree prim() {
+        int n = G.n();
+        Graph reverse = CsrGraph.reverse(G);   // In-edges count as neighbors too
+        NeighborCursor out = G.cursor();
+        NeighborCursor in = reverse.cursor();
+        IndexedQueue queue = kind.create(n);
+        boolean[] inTree = new boolean[n];
+        int[] link = new int[n];         // Tree vertex at the other end of v's best edge
+        boolean[] linkOut = new boolean[n];   // Best edge is stored as (link[v], v)
+        int[] from = new int[Math.max(n - 1, 0)];
+        int[] to = new int[from.length];
+        double[] weights = new double[from.length];
+        int size = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (inTree[root]) continue;
+            queue.insert(root, 0);
+            link[root] = -1;
+            while (!queue.isEmpty()) {
+                double w = queue.distanceOf(queue.minIndex());
+                int v = queue.removeMin();
+                inTree[v] = true;
+                if (link[v] >= 0) {
+                    from[size] = linkOut[v] ? link[v] : v;
+                    to[size] = linkOut[v] ? v : link[v];
+                    weights[size++] = w;
+                }
+                for (out.reset(v); out.advance(); )
+                    offer(queue, inTree, link, linkOut, v, out.vertex(), out.weight(), false);
+                for (in.reset(v); in.advance(); )
+                    offer(queue, inTree, link, linkOut, v, in.vertex(), in.weight(), true);
+            }
+        }
+        return new SpanningTree(from, to, weights, size);
+    }
+
+    /**
+     * Lower w's key to weight if the edge between tree vertex v and w is
+     * lighter than w's best so far; incoming tells how the edge is stored
+     */
+    private static void offer(IndexedQueue queue, boolean[] inTree, int[] link, boolean[] linkOut,
+                              int v, int w, double weight, boolean incoming) {
+        if (inTree[w]) return;
+        if (!queue.contains(w)) queue.insert(w, weight);
+        else if (weight < queue.distanceOf(w)) queue.decreaseDistance(w, weight);
+        else return;
+        link[w] = v;
+        linkOut[w] = !incoming;
+    }
+
+    /**
+     * Boruvka rounds: every component picks its lightest outgoing edge in
+     * parallel, the picked edges are merged with a union-find, and edges
+     * inside a component are dropped. Each round at least halves the
+     * number of components. Ties are broken by edge index so the picked
+     * edges never form a cycle.
+     */
+    public SpanningTree boruvka() {
+        int n = G.n();
+        CsrGraph csr = G instanceof CsrGraph ? (CsrGraph) G : new CsrGraph(G);
+        int m = csr.e();
+        final int[] src = new int[m];
+        final int[] dst = new int[m];
+        final double[] wt = new double[m];
+        NeighborCursor c = csr.cursor();
+        for (int v = 0, k = 0; v < n; v++)
+            for (c.reset(v); c.advance(); k++) {
+                src[k] = v;
+                dst[k] = c.vertex();
+                wt[k] = c.weight();
+            }
+
+        final int[] parent = new int[n];   // Union-find forest
+        int[] size = new int[n];
+        final int[] comp = new int[n];     // Root of each vertex as of the last round
+        for (int v = 0; v < n; v++) {
+            parent[v] = v;
+            size[v] = 1;
+            comp[v] = v;
+        }
+        final AtomicIntegerArray cheapest = new AtomicIntegerArray(n);   // Edge index, -1 if none
+        int[] roots = new int[n];
+        int numRoots = n;
+        for (int v = 0; v < n; v++) roots[v] = v;
+        int[] live = new int[m];
+        for (int k = 0; k < m; k++) live[k] = k;
+        int numLive = m;
+
+        int[] from = new int[Math.max(n - 1, 0)];
+        int[] to = new int[from.length];
+        double[] weights = new double[from.length];
+        int chosen = 0;
+
+        while (numLive > 0) {
+            for (int r = 0; r < numRoots; r++)
+                cheapest.set(roots[r], -1);
+            numLive = pool.invoke(new Pick(live, 0, numLive, src, dst, wt, comp, cheapest));
+            if (numLive == 0) break;
+
+            int kept = 0;
+            for (int r = 0; r < numRoots; r++) {
+                int k = cheapest.get(roots[r]);
+                if (k < 0) continue;   // No edge leaves this component
+                int a = find(parent, src[k]);
+                int b = find(parent, dst[k]);
+                if (a == b) continue;   // Both ends picked the same edge
+                if (size[a] < size[b]) {
+                    int t = a;
+                    a = b;
+                    b = t;
+                }
+                parent[b] = a;
+                size[a] += size[b];
+                from[chosen] = src[k];
+                to[chosen] = dst[k];
+                weights[chosen++] = wt[k];
+            }
+            for (int r = 0; r < numRoots; r++)
+                if (parent[roots[r]] == roots[r]) roots[kept++] = roots[r];
+            numRoots = kept;
+            pool.invoke(new Relabel(parent, comp, 0, n));
+        }
+        return new SpanningTree(from, to, weights, chosen);
+    }
+
+    /**
+     * @return the root of v, halving the path on the way
+     */
+    private static int find(int[] parent, int v) {
+        while (parent[v] != v) {
+            parent[v] = parent[parent[v]];
+            v = parent[v];
+        }
+        return v;
+    }
+
+    /**
+     * Drop edges inside a component and offer the rest to both end
+     * components as their cheapest edge. Survivors are packed in place to
+     * the front of the range; returns how many there are.
+     */
+    @SuppressWarnings("serial") // Tasks are never serialized
+    private static class Pick extends RecursiveTask<Integer> {
+        private final int[] live;
+        private final int lo, hi;
+        private final int[] src, dst, comp;
+        private final double[] wt;
+        private final AtomicIntegerArray cheapest;
+
+        Pick(int[] live, int lo, int hi, int[] src, int[] dst, double[] wt, int[] comp,
+             AtomicIntegerArray cheapest) {
+            this.live = live;
+            this.lo = lo;
+            this.hi = hi;
+            this.src = src;
+            this.dst = dst;
+            this.wt = wt;
+            this.comp = comp;
+            this.cheapest = cheapest;
+        }
+
+        protected Integer compute() {
+            if (hi - lo > THRESHOLD) {
+                int mid = (lo + hi) >>> 1;
+                Pick left = new Pick(live, lo, mid, src, dst, wt, comp, cheapest);
+                left.fork();
+                int right = new Pick(live, mid, hi, src, dst, wt, comp, cheapest).compute();
+                int l = left.join();
+                System.arraycopy(live, mid, live, lo + l, right);
+                return l + right;
+            }
+            int size = lo;
+            for (int i = lo; i < hi; i++) {
+                int k = live[i];
+                int a = comp[src[k]];
+                int b = comp[dst[k]];
+                if (a == b) continue;
+                live[size++] = k;
+                offer(a, k);
+                offer(b, k);
+            }
+            return size - lo;
+        }
+
+        private void offer(int c, int k) {
+            while (true) {
+                int best = cheapest.get(c);
+                if (best >= 0 && (wt[best] < wt[k] || (wt[best] == wt[k] && best < k))) return;
+                if (cheapest.compareAndSet(c, best, k)) return;
+            }
+        }
+    }
+
+    /**
+     * Point every vertex at its current root. The forest is not changed
+     * during this pass, so the finds only read it.
+     */
+    @SuppressWarnings("serial") // Tasks are never serialized
+    private static class Relabel extends RecursiveAction {
+        private final int[] parent, comp;
+        private final int lo, hi;
+
+        Relabel(int[] parent, int[] comp, int lo, int hi) {
+            this.parent = parent;
+            this.comp = comp;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute() {
+            if (hi - lo > THRESHOLD) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Relabel(parent, comp, lo, mid), new Relabel(parent, comp, mid, hi));
+                return;
+            }
+            for (int v = lo; v < hi; v++) {
+                int r = v;
+                while (parent[r] != r) r = parent[r];
+                comp[v] = r;
+            }
+        }
+    }
+}
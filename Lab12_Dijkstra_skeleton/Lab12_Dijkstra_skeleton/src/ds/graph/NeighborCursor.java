@@ -0,0 +1,35 @@
+package ds.graph;
+
+/**
+ * Reusable walker over the outgoing edges of one vertex.
+ * Typical use:
+ * <pre>
+ *     NeighborCursor c = G.cursor();
+ *     for (c.reset(v); c.advance(); )
+ *         relax(v, c.vertex(), c.weight());
+ * </pre>
+ * A cursor never allocates while stepping and never moves the current
+ * position of the graph's adjacency lists.
+ */
+public abstract class NeighborCursor {
+    /**
+     * Position the cursor before v's first neighbor
+     */
+    public abstract void reset(int v);
+
+    /**
+     * Step to the next neighbor
+     * @return false once all neighbors have been visited
+     */
+    public abstract boolean advance();
+
+    /**
+     * @return the neighbor the cursor is on
+     */
+    public abstract int vertex();
+
+    /**
+     * @return the weight of the edge to the current neighbor
+     */
+    public abstract double weight();
+}
@@ -0,0 +1,229 @@
+package ds.graph;
+
+import java.util.Arrays;
+
+/**
+ * A graph renumbered for cache locality. Internally the edges live in a
+ * CsrGraph under new vertex ids chosen so that neighbors get nearby ids;
+ * the Graph methods still speak the original ids. Dijkstra recognizes this
+ * class, searches the internal graph and maps D/prev back.
+ * Neighbors are enumerated in internal order, which is not sorted by
+ * original id.
+ */
+public class ReorderedGraph extends Graph {
+    /**
+     * Renumbering strategy
+     */
+    public enum Order {
+        RCM,      // Reverse Cuthill-McKee: BFS levels, low degree first, reversed
+        DEGREE    // Highest degree first, so hubs share cache lines
+    }
+
+    private CsrGraph inner;
+    private int[] toNew;   // Internal id of each original vertex
+    private int[] toOld;   // Original id of each internal vertex
+
+    public ReorderedGraph(Graph G, Order order) {
+        int n = G.n();
+        toOld = order == Order.RCM ? cuthillMcKee(G) : byDegree(G);
+        toNew = new int[n];
+        for (int i = 0; i < n; i++)
+            toNew[toOld[i]] = i;
+        GraphBuilder builder = new GraphBuilder(n);
+        NeighborCursor c = G.cursor();
+        for (int v = 0; v < n; v++)
+            for (c.reset(v); c.advance(); )
+                builder.addEdge(toNew[v], toNew[c.vertex()], c.weight());
+        inner = builder.buildCsr();
+    }
+
+    /**
+     * @return the internal id of original vertex v
+     */
+    public int toInternal(int v) {
+        return toNew[v];
+    }
+
+    /**
+     * @return the original id of internal vertex v
+     */
+    public int toOriginal(int v) {
+        return toOld[v];
+    }
+
+    /**
+     * @return the renumbered graph
+     */
+    CsrGraph inner() {
+        return inner;
+    }
+
+    /**
+     * Rewrite search results on the internal graph to original ids, in place
+     * and without scratch arrays: entries are moved along the cycles of the
+     * permutation, and a moved prev entry p is stored as -p - 3 (always
+     * below -1) to mark its slot as done until a final pass decodes it
+     */
+    void restore(double[] D, int[] prev) {
+        int n = toOld.length;
+        for (int s = 0; s < n; s++) {
+            if (prev[s] < -1) continue;          // Already moved here
+            double d = D[s];
+            int p = prev[s];
+            for (int j = toOld[s]; ; j = toOld[j]) {
+                double nextD = D[j];
+                int nextP = prev[j];
+                D[j] = d;
+                prev[j] = -(p == -1 ? -1 : toOld[p]) - 3;
+                if (j == s) break;
+                d = nextD;
+                p = nextP;
+            }
+        }
+        for (int i = 0; i < n; i++)
+            prev[i] = -prev[i] - 3;
+    }
+
+    /**
+     * Cuthill-McKee over the graph with edge directions ignored: BFS from a
+     * lowest-degree vertex of each component, visiting neighbors by
+     * increasing degree; the reversed visit order is the new numbering
+     */
+    private static int[] cuthillMcKee(Graph G) {
+        int n = G.n();
+        CsrGraph reverse = CsrGraph.reverse(G);
+        NeighborCursor out = G.cursor();
+        NeighborCursor in = reverse.cursor();
+        int[] degree = new int[n];
+        for (int v = 0; v < n; v++) {
+            for (out.reset(v); out.advance(); ) degree[v]++;
+            for (in.reset(v); in.advance(); ) degree[v]++;
+        }
+        long[] byDegree = new long[n];      // Start candidates, degree then id
+        for (int v = 0; v < n; v++)
+            byDegree[v] = (long) degree[v] << 32 | v;
+        Arrays.sort(byDegree);
+
+        int[] order = new int[n];
+        boolean[] visited = new boolean[n];
+        long[] batch = new long[16];        // Unvisited neighbors of one vertex
+        int head = 0, tail = 0;
+        for (long candidate : byDegree) {
+            int s = (int) candidate;
+            if (visited[s]) continue;
+            visited[s] = true;
+            order[tail++] = s;
+            while (head < tail) {
+                int v = order[head++];
+                int size = 0;
+                for (NeighborCursor c : new NeighborCursor[]{out, in})
+                    for (c.reset(v); c.advance(); ) {
+                        int w = c.vertex();
+                        if (visited[w]) continue;
+                        visited[w] = true;
+                        if (size == batch.length) batch = Arrays.copyOf(batch, 2 * size);
+                        batch[size++] = (long) degree[w] << 32 | w;
+                    }
+                Arrays.sort(batch, 0, size);
+                for (int k = 0; k < size; k++)
+                    order[tail++] = (int) batch[k];
+            }
+        }
+        for (int i = 0, j = n - 1; i < j; i++, j--) {
+            int t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+        return order;
+    }
+
+    private static int[] byDegree(Graph G) {
+        int n = G.n();
+        long[] keys = new long[n];          // Negated degree, then id
+        NeighborCursor c = G.cursor();
+        for (int v = 0; v < n; v++) {
+            int degree = 0;
+            for (c.reset(v); c.advance(); ) degree++;
+            keys[v] = (long) -degree << 32 | v;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++)
+            order[i] = (int) keys[i];
+        return order;
+    }
+
+    @Override
+    public void init(int n) {
+        throw new UnsupportedOperationException("ReorderedGraph is immutable");
+    }
+
+    @Override
+    public int n() {
+        return inner.n();
+    }
+
+    @Override
+    public int e() {
+        return inner.e();
+    }
+
+    @Override
+    public long version() {
+        return 0;
+    }
+
+    @Override
+    public int first(int v) {
+        int w = inner.first(toNew[v]);
+        return w == n() ? w : toOld[w];
+    }
+
+    @Override
+    public int next(int v, int w) {
+        int x = inner.next(toNew[v], toNew[w]);
+        return x == n() ? x : toOld[x];
+    }
+
+    @Override
+    public NeighborCursor cursor() {
+        final NeighborCursor c = inner.cursor();
+        return new NeighborCursor() {
+            public void reset(int v) {
+                c.reset(toNew[v]);
+            }
+
+            public boolean advance() {
+                return c.advance();
+            }
+
+            public int vertex() {
+                return toOld[c.vertex()];
+            }
+
+            public double weight() {
+                return c.weight();
+            }
+        };
+    }
+
+    @Override
+    public void setEdge(int i, int j, double weight) {
+        throw new UnsupportedOperationException("ReorderedGraph is immutable");
+    }
+
+    @Override
+    public void delEdge(int i, int j) {
+        throw new UnsupportedOperationException("ReorderedGraph is immutable");
+    }
+
+    @Override
+    public boolean isEdge(int v, int w) {
+        return inner.isEdge(toNew[v], toNew[w]);
+    }
+
+    @Override
+    public double weight(int i, int j) {
+        return inner.weight(toNew[i], toNew[j]);
+    }
+}
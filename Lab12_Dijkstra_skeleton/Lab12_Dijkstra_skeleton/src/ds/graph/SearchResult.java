@@ -0,0 +1,46 @@
+package ds.graph;
+
+/**
+ * Vertices settled by a bounded search, in the order they were settled
+ * (so by increasing distance), with their distances and predecessors.
+ */
+public class SearchResult {
+    private int[] vertices;
+    private double[] dist;
+    private int[] prev;
+
+    SearchResult(int[] vertices, double[] dist, int[] prev) {
+        this.vertices = vertices;
+        this.dist = dist;
+        this.prev = prev;
+    }
+
+    /**
+     * @return the number of settled vertices
+     */
+    public int size() {
+        return vertices.length;
+    }
+
+    /**
+     * @return the k-th settled vertex
+     */
+    public int vertex(int k) {
+        return vertices[k];
+    }
+
+    /**
+     * @return the distance of the k-th settled vertex from the source
+     */
+    public double distance(int k) {
+        return dist[k];
+    }
+
+    /**
+     * @return the vertex before the k-th settled vertex on its shortest
+     * path, -1 for the source
+     */
+    public int prev(int k) {
+        return prev[k];
+    }
+}
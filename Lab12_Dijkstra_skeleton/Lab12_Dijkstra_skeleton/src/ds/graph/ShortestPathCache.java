@@ -0,0 +1,76 @@
+package ds.graph;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of shortest-path trees keyed by source vertex.
+ * Every tree was computed against one Graph.version(); the first lookup
+ * after setEdge or delEdge changes the graph drops all cached trees.
+ */
+public class ShortestPathCache {
+    private Graph G;
+    private Dijkstra dijkstra;
+    private LinkedHashMap<Integer, ShortestPathTree> trees;
+    private long version;        // Graph version the cached trees belong to
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;  // Trees dropped because the graph changed
+
+    public ShortestPathCache(Graph G, final int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be positive");
+        this.G = G;
+        version = G.version();
+        trees = new LinkedHashMap<Integer, ShortestPathTree>(16, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry<Integer, ShortestPathTree> eldest) {
+                if (size() <= capacity) return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @return the shortest-path tree rooted at source, computing it on a miss
+     */
+    public ShortestPathTree get(int source) {
+        if (version != G.version()) {
+            invalidations += trees.size();
+            trees.clear();
+            version = G.version();
+        }
+        ShortestPathTree tree = trees.get(source);
+        if (tree != null) {
+            hits++;
+            return tree;
+        }
+        misses++;
+        if (dijkstra == null) dijkstra = new Dijkstra(G);
+        dijkstra.calculateShortestPath(G, source);
+        tree = new ShortestPathTree(source, dijkstra.distances().clone(),
+                dijkstra.predecessors().clone());
+        trees.put(source, tree);
+        return tree;
+    }
+
+    public int size() {
+        return trees.size();
+    }
+
+    public long hits() {
+        return hits;
+    }
+
+    public long misses() {
+        return misses;
+    }
+
+    public long evictions() {
+        return evictions;
+    }
+
+    public long invalidations() {
+        return invalidations;
+    }
+}
@@ -0,0 +1,34 @@
+package ds.graph;
+
+/**
+ * Result of a one-to-all search: distance and previous vertex per vertex.
+ */
+public class ShortestPathTree {
+    private int source;
+    private double[] D;
+    private int[] prev;
+
+    public ShortestPathTree(int source, double[] D, int[] prev) {
+        this.source = source;
+        this.D = D;
+        this.prev = prev;
+    }
+
+    public int source() {
+        return source;
+    }
+
+    /**
+     * @return the distance from the source to v, infinity if unreachable
+     */
+    public double distance(int v) {
+        return D[v];
+    }
+
+    /**
+     * @return the vertex before v on its shortest path, -1 if none
+     */
+    public int prev(int v) {
+        return prev[v];
+    }
+}
@@ -0,0 +1,57 @@
+package ds.graph;
+
+import java.util.Arrays;
+
+/**
+ * Edges of a minimum spanning forest with their total weight. Each edge is
+ * reported in the direction it is stored in the graph.
+ */
+public class SpanningTree {
+    private int[] from;
+    private int[] to;
+    private double[] weights;
+    private double total;
+
+    SpanningTree(int[] from, int[] to, double[] weights, int size) {
+        this.from = Arrays.copyOf(from, size);
+        this.to = Arrays.copyOf(to, size);
+        this.weights = Arrays.copyOf(weights, size);
+        for (int k = 0; k < size; k++)
+            total += weights[k];
+    }
+
+    /**
+     * @return the sum of the chosen edge weights
+     */
+    public double weight() {
+        return total;
+    }
+
+    /**
+     * @return the number of chosen edges; n minus the number of components
+     */
+    public int size() {
+        return from.length;
+    }
+
+    /**
+     * @return the source of the k-th chosen edge
+     */
+    public int from(int k) {
+        return from[k];
+    }
+
+    /**
+     * @return the destination of the k-th chosen edge
+     */
+    public int to(int k) {
+        return to[k];
+    }
+
+    /**
+     * @return the weight of the k-th chosen edge
+     */
+    public double weight(int k) {
+        return weights[k];
+    }
+}
@@ -0,0 +1,279 @@
+package ds.graph;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Unweighted traversals of a static graph with visited sets kept as long[]
+ * bitsets. BFS is direction-optimizing: it expands the frontier top-down
+ * (frontier vertices scan their out-edges) while the frontier is small, and
+ * bottom-up (unvisited vertices scan their in-edges for a frontier vertex)
+ * while it is large. Both directions expand the frontier in parallel.
+ */
+public class Traversal {
+    private static final int ALPHA = 14;       // Go bottom-up when frontier edges > unexplored / ALPHA
+    private static final int BETA = 24;        // Go top-down when frontier < n / BETA
+    private static final int THRESHOLD = 1024; // Vertices per leaf task
+    private static final VarHandle BITS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private Graph G;
+    private Graph reverse;
+    private int[] outDegree;
+    private ForkJoinPool pool;
+
+    public Traversal(Graph G) {
+        this(G, ForkJoinPool.commonPool());
+    }
+
+    public Traversal(Graph G, ForkJoinPool pool) {
+        this.G = G;
+        this.pool = pool;
+        reverse = CsrGraph.reverse(G);
+        outDegree = new int[G.n()];
+        NeighborCursor c = G.cursor();
+        for (int v = 0; v < G.n(); v++)
+            for (c.reset(v); c.advance(); ) outDegree[v]++;
+    }
+
+    /**
+     * @return true if bit v of bits is set
+     */
+    public static boolean isSet(long[] bits, int v) {
+        return (bits[v >>> 6] & (1L << v)) != 0;
+    }
+
+    /**
+     * @return the number of edges on a shortest path from source to each
+     * vertex, -1 if unreachable
+     */
+    public int[] hops(int source) {
+        int[] hops = new int[G.n()];
+        bfs(source, hops);
+        return hops;
+    }
+
+    /**
+     * @return the set of vertices reachable from source, as a bitset
+     */
+    public long[] reachable(int source) {
+        return bfs(source, new int[G.n()]);
+    }
+
+    /**
+     * @return the vertices reachable from source in depth-first preorder,
+     * neighbors taken in adjacency order
+     */
+    public int[] depthFirst(int source) {
+        int n = G.n();
+        long[] visited = new long[(n + 63) >>> 6];
+        int[] order = new int[n];
+        int count = 0;
+        NeighborCursor[] cursors = new NeighborCursor[16];   // One per vertex on the open path
+        int top = 0;
+        visited[source >>> 6] |= 1L << source;
+        order[count++] = source;
+        cursors[top] = G.cursor();
+        cursors[top].reset(source);
+        top++;
+        while (top > 0) {
+            NeighborCursor c = cursors[top - 1];
+            if (!c.advance()) {
+                top--;
+                continue;
+            }
+            int w = c.vertex();
+            if (isSet(visited, w)) continue;
+            visited[w >>> 6] |= 1L << w;
+            order[count++] = w;
+            if (top == cursors.length) cursors = Arrays.copyOf(cursors, 2 * top);
+            if (cursors[top] == null) cursors[top] = G.cursor();
+            cursors[top++].reset(w);
+        }
+        return Arrays.copyOf(order, count);
+    }
+
+    /**
+     * Fill hops and return the visited bitset
+     */
+    private long[] bfs(int source, int[] hops) {
+        int n = G.n();
+        Arrays.fill(hops, -1);
+        long[] visited = new long[(n + 63) >>> 6];
+        visited[source >>> 6] |= 1L << source;
+        hops[source] = 0;
+        int[] frontier = {source};     // Frontier as a list (top-down)...
+        long[] frontierBits = null;    // ...or as a bitset (bottom-up)
+        int size = 1;
+        long frontierEdges = outDegree[source];
+        long unexplored = G.e() - frontierEdges;
+        for (int level = 1; size > 0; level++) {
+            Step step;
+            if (frontierBits == null && frontierEdges > unexplored / ALPHA) {
+                frontierBits = toBits(frontier, size, n);
+            } else if (frontierBits != null && size < n / BETA) {
+                frontier = toList(frontierBits, size);
+                frontierBits = null;
+            }
+            if (frontierBits == null) {
+                step = pool.invoke(new TopDown(frontier, 0, size, visited, hops, level));
+                frontier = step.next;
+            } else {
+                long[] next = new long[frontierBits.length];
+                step = pool.invoke(new BottomUp(frontierBits, next, 0, frontierBits.length, visited, hops, level));
+                frontierBits = next;
+            }
+            size = step.size;
+            frontierEdges = step.edges;
+            unexplored -= frontierEdges;
+        }
+        return visited;
+    }
+
+    private static long[] toBits(int[] list, int size, int n) {
+        long[] bits = new long[(n + 63) >>> 6];
+        for (int k = 0; k < size; k++)
+            bits[list[k] >>> 6] |= 1L << list[k];
+        return bits;
+    }
+
+    private static int[] toList(long[] bits, int size) {
+        int[] list = new int[size];
+        int k = 0;
+        for (int i = 0; i < bits.length; i++)
+            for (long word = bits[i]; word != 0; word &= word - 1)
+                list[k++] = (i << 6) + Long.numberOfTrailingZeros(word);
+        return list;
+    }
+
+    /**
+     * Outcome of expanding one level
+     */
+    private static class Step {
+        int[] next;     // New frontier (top-down only)
+        int size;       // Vertices in the new frontier
+        long edges;     // Out-edges of the new frontier
+
+        Step(int[] next, int size, long edges) {
+            this.next = next;
+            this.size = size;
+            this.edges = edges;
+        }
+    }
+
+    /**
+     * Frontier vertices claim their unvisited out-neighbors; claiming is a
+     * compare-and-set on the visited word, so each vertex joins once
+     */
+    @SuppressWarnings("serial") // Tasks are never serialized
+    private class TopDown extends RecursiveTask<Step> {
+        private final int[] frontier;
+        private final int lo, hi;
+        private final long[] visited;
+        private final int[] hops;
+        private final int level;
+
+        TopDown(int[] frontier, int lo, int hi, long[] visited, int[] hops, int level) {
+            this.frontier = frontier;
+            this.lo = lo;
+            this.hi = hi;
+            this.visited = visited;
+            this.hops = hops;
+            this.level = level;
+        }
+
+        protected Step compute() {
+            if (hi - lo > THRESHOLD) {
+                int mid = (lo + hi) >>> 1;
+                TopDown left = new TopDown(frontier, lo, mid, visited, hops, level);
+                left.fork();
+                Step right = new TopDown(frontier, mid, hi, visited, hops, level).compute();
+                Step l = left.join();
+                int[] next = Arrays.copyOf(l.next, l.size + right.size);
+                System.arraycopy(right.next, 0, next, l.size, right.size);
+                return new Step(next, l.size + right.size, l.edges + right.edges);
+            }
+            int[] next = new int[16];
+            int size = 0;
+            long edges = 0;
+            NeighborCursor c = G.cursor();
+            for (int k = lo; k < hi; k++)
+                for (c.reset(frontier[k]); c.advance(); ) {
+                    int w = c.vertex();
+                    if (!claim(w)) continue;
+                    hops[w] = level;
+                    if (size == next.length) next = Arrays.copyOf(next, 2 * size);
+                    next[size++] = w;
+                    edges += outDegree[w];
+                }
+            return new Step(next, size, edges);
+        }
+
+        private boolean claim(int w) {
+            int i = w >>> 6;
+            long bit = 1L << w;
+            while (true) {
+                long word = (long) BITS.getVolatile(visited, i);
+                if ((word & bit) != 0) return false;
+                if (BITS.compareAndSet(visited, i, word, word | bit)) return true;
+            }
+        }
+    }
+
+    /**
+     * Unvisited vertices look for an in-neighbor in the frontier. Tasks own
+     * whole bitset words, so they write visited and next without atomics.
+     */
+    @SuppressWarnings("serial") // Tasks are never serialized
+    private class BottomUp extends RecursiveTask<Step> {
+        private final long[] frontier, next, visited;
+        private final int lo, hi;   // Word range
+        private final int[] hops;
+        private final int level;
+
+        BottomUp(long[] frontier, long[] next, int lo, int hi, long[] visited, int[] hops, int level) {
+            this.frontier = frontier;
+            this.next = next;
+            this.lo = lo;
+            this.hi = hi;
+            this.visited = visited;
+            this.hops = hops;
+            this.level = level;
+        }
+
+        protected Step compute() {
+            if ((hi - lo) << 6 > THRESHOLD) {
+                int mid = (lo + hi) >>> 1;
+                BottomUp left = new BottomUp(frontier, next, lo, mid, visited, hops, level);
+                left.fork();
+                Step right = new BottomUp(frontier, next, mid, hi, visited, hops, level).compute();
+                Step l = left.join();
+                return new Step(null, l.size + right.size, l.edges + right.edges);
+            }
+            int size = 0;
+            long edges = 0;
+            int n = G.n();
+            NeighborCursor c = reverse.cursor();
+            for (int i = lo; i < hi; i++) {
+                long unvisited = ~visited[i];
+                if (i == visited.length - 1 && (n & 63) != 0)
+                    unvisited &= (1L << n) - 1;   // Ignore padding bits
+                for (; unvisited != 0; unvisited &= unvisited - 1) {
+                    int v = (i << 6) + Long.numberOfTrailingZeros(unvisited);
+                    for (c.reset(v); c.advance(); )
+                        if (isSet(frontier, c.vertex())) {
+                            visited[i] |= 1L << v;
+                            next[i] |= 1L << v;
+                            hops[v] = level;
+                            size++;
+                            edges += outDegree[v];
+                            break;
+                        }
+                }
+            }
+            return new Step(null, size, edges);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package ds.graph;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A graph that one writer changes while any number of readers query it.
+ * Every change publishes a new immutable GraphSnapshot through a volatile
+ * reference, so readers never block: they take snapshot() and see the
+ * edges as of that moment for as long as they hold it. Changes go to an
+ * overlay on top of a CSR base. Once the overlay grows past its limit, a
+ * task on the pool folds it into a fresh base with GraphBuilder while
+ * writes go on; the rows changed meanwhile are then moved onto the new
+ * base, so the writer only pays for those.
+ */
+public class VersionedGraph {
+    private volatile GraphSnapshot current;
+    private int maxOverlay;      // Overlay entries that trigger compaction
+    private ForkJoinPool pool;   // Runs background compactions
+    private boolean compacting;  // A background compaction is running
+    private long compactions;
+
+    public VersionedGraph(Graph G) {
+        this(G, Math.max(1024, G.e() / 16));
+    }
+
+    public VersionedGraph(Graph G, int maxOverlay) {
+        this(G, maxOverlay, ForkJoinPool.commonPool());
+    }
+
+    public VersionedGraph(Graph G, int maxOverlay, ForkJoinPool pool) {
+        if (maxOverlay < 1) throw new IllegalArgumentException("maxOverlay must be positive");
+        current = new GraphSnapshot(G instanceof CsrGraph ? (CsrGraph) G : new CsrGraph(G), 0);
+        this.maxOverlay = maxOverlay;
+        this.pool = pool;
+    }
+
+    /**
+     * @return the latest published snapshot
+     */
+    public GraphSnapshot snapshot() {
+        return current;
+    }
+
+    /**
+     * Set the weight for an edge and publish the result
+     */
+    public synchronized void setEdge(int i, int j, double weight) {
+        assert weight != 0 : "May not set weight to 0";
+        checkVertex(i);
+        checkVertex(j);
+        if (weight < 0) {
+            System.out.println("The weight has a negative value.");
+            return;
+        }
+        publish(current.withEdge(i, j, weight));
+    }
+
+    /**
+     * Delete an edge and publish the result
+     */
+    public synchronized void delEdge(int i, int j) {
+        checkVertex(i);
+        checkVertex(j);
+        publish(current.withoutEdge(i, j));
+    }
+
+    /**
+     * Fold the overlay into a new base now and publish it. This rebuilds
+     * the whole graph on the calling thread, holding off other writes; the
+     * automatic compaction runs in the background instead. Readers holding
+     * older snapshots keep their base; the edges and version do not change.
+     */
+    public synchronized void compact() {
+        GraphSnapshot s = current;
+        if (s.overlaySize() == 0) return;
+        current = s.rebase(build(s), s);
+        compactions++;
+    }
+
+    /**
+     * @return how many times the overlay has been folded into the base
+     */
+    public synchronized long compactions() {
+        return compactions;
+    }
+
+    private void publish(GraphSnapshot s) {
+        current = s;
+        if (s.overlaySize() > maxOverlay && !compacting) {
+            compacting = true;
+            final GraphSnapshot folded = s;
+            pool.execute(() -> {
+                CsrGraph base = null;
+                try {
+                    base = build(folded);
+                } finally {
+                    install(folded, base);
+                }
+            });
+        }
+    }
+
+    /**
+     * Publish the current snapshot moved onto base, which holds the edges
+     * of folded; dropped if compact() replaced the base in the meantime
+     */
+    private synchronized void install(GraphSnapshot folded, CsrGraph base) {
+        compacting = false;
+        if (base == null || !current.sharesBase(folded)) return;
+        current = current.rebase(base, folded);
+        compactions++;
+    }
+
+    /**
+     * @return a CSR graph with the edges of s
+     */
+    private static CsrGraph build(GraphSnapshot s) {
+        GraphBuilder b = new GraphBuilder(s.n());
+        NeighborCursor c = s.cursor();
+        for (int v = 0; v < s.n(); v++)
+            for (c.reset(v); c.advance(); )
+                b.addEdge(v, c.vertex(), c.weight());
+        return b.buildCsr();
+    }
+
+    private void checkVertex(int v) {
+        if (v < 0 || v >= current.n()) throw new IndexOutOfBoundsException("No vertex " + v);
+    }
+}
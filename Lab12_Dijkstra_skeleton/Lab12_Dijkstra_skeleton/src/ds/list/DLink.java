@@ -0,0 +1,46 @@
+package ds.list;
+
+/**
+ * Doubly linked list node
+ */
+public class DLink<E> {
+    private E element;        // Value for this node
+    private DLink<E> next;    // Pointer to next node in list
+    private DLink<E> prev;    // Pointer to previous node in list
+
+    // Constructors
+    public DLink(E it, DLink<E> prevval, DLink<E> nextval) {
+        element = it;
+        prev = prevval;
+        next = nextval;
+    }
+
+    public DLink(DLink<E> prevval, DLink<E> nextval) {
+        prev = prevval;
+        next = nextval;
+    }
+
+    public DLink<E> next() {
+        return next;
+    }
+
+    public DLink<E> setNext(DLink<E> nextval) {
+        return next = nextval;
+    }
+
+    public DLink<E> prev() {
+        return prev;
+    }
+
+    public DLink<E> setPrev(DLink<E> prevval) {
+        return prev = prevval;
+    }
+
+    public E element() {
+        return element;
+    }
+
+    public E setElement(E it) {
+        return element = it;
+    }
+}
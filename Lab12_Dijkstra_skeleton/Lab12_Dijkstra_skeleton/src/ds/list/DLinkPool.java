@@ -0,0 +1,43 @@
+package ds.list;
+
+/**
+ * Free list of DLink nodes. Lists that share a pool hand removed nodes back
+ * and take new ones from it, so insert/remove churn does not create garbage.
+ * Not thread-safe; share a pool only between lists used by one thread.
+ */
+public class DLinkPool<E> {
+    private DLink<E> free;    // Chain of unused nodes, linked through next
+    private int size;         // Number of unused nodes
+
+    /**
+     * @return a node holding "it" between prevval and nextval
+     */
+    public DLink<E> acquire(E it, DLink<E> prevval, DLink<E> nextval) {
+        if (free == null) return new DLink<E>(it, prevval, nextval);
+        DLink<E> link = free;
+        free = link.next();
+        size--;
+        link.setElement(it);
+        link.setPrev(prevval);
+        link.setNext(nextval);
+        return link;
+    }
+
+    /**
+     * Take back a node that is no longer in any list
+     */
+    public void release(DLink<E> link) {
+        link.setElement(null);    // Do not keep the value reachable
+        link.setPrev(null);
+        link.setNext(free);
+        free = link;
+        size++;
+    }
+
+    /**
+     * @return Number of nodes ready for reuse
+     */
+    public int size() {
+        return size;
+    }
+}
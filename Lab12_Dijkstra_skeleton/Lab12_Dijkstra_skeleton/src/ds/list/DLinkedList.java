@@ -0,0 +1,160 @@
+package ds.list;
+
+/**
+ * Doubly linked list with the LinkedList API. The position of curr is
+ * tracked as it moves, so currPos, prev, moveToEnd and remove are O(1), and
+ * moveToPos walks from whichever end is closer. Nodes can come from a
+ * DLinkPool shared by several lists.
+ */
+public class DLinkedList<E> implements List<E> {
+    private DLink<E> head;         // Pointer to list header
+    private DLink<E> tail;         // Pointer to last element
+    private DLink<E> curr;         // Access to current element
+    private int pos;               // Position of the current element
+    private int count;             // Size of list
+    private DLinkPool<E> pool;     // Node source, or null to allocate
+
+    public DLinkedList() {
+        this(null);
+    }
+
+    public DLinkedList(DLinkPool<E> pool) {
+        this.pool = pool;
+        curr = tail = head = new DLink<E>(null, null);
+        pos = count = 0;
+    }
+
+    /**
+     * Remove all elements
+     */
+    public void clear() {
+        if (pool != null) {   // Hand the nodes back
+            DLink<E> link = head.next();
+            while (link != null) {
+                DLink<E> rest = link.next();
+                pool.release(link);
+                link = rest;
+            }
+        }
+        head.setNext(null);
+        curr = tail = head;
+        pos = count = 0;
+    }
+
+    /**
+     * Insert "it" at current position
+     */
+    public void insert(E it) {
+        DLink<E> link = newLink(it, curr, curr.next());
+        if (curr.next() != null) curr.next().setPrev(link);
+        curr.setNext(link);
+        if (tail == curr) tail = link;  // New tail
+        count++;
+    }
+
+    /**
+     * Append "it" to list
+     */
+    public void append(E it) {
+        tail = tail.setNext(newLink(it, tail, null));
+        count++;
+    }
+
+    /**
+     * Remove and return current element
+     */
+    public E remove() {
+        DLink<E> gone = curr.next();
+        if (gone == null) return null;       // Nothing to remove
+        E it = gone.element();               // Remember value
+        curr.setNext(gone.next());           // Remove from list
+        if (gone.next() != null) gone.next().setPrev(curr);
+        if (tail == gone) tail = curr;       // Removed last
+        count--;
+        if (pool != null) pool.release(gone);
+        return it;
+    }
+
+    /**
+     * Set curr at list start
+     */
+    public void moveToStart() {
+        curr = head;
+        pos = 0;
+    }
+
+    /**
+     * Set curr at list end
+     */
+    public void moveToEnd() {
+        curr = tail;
+        pos = count;
+    }
+
+    /**
+     * Move curr one step left; no change if now at front
+     */
+    public void prev() {
+        if (curr == head) return; // No previous element
+        curr = curr.prev();
+        pos--;
+    }
+
+    /**
+     * Move curr one step right; no change if now at end
+     */
+    public void next() {
+        if (curr == tail) return;
+        curr = curr.next();
+        pos++;
+    }
+
+    /**
+     * @return List length
+     */
+    public int length() {
+        return count;
+    }
+
+    /**
+     * @return The position of the current element
+     */
+    public int currPos() {
+        return pos;
+    }
+
+    /**
+     * Move down list to "pos" position
+     */
+    public void moveToPos(int pos) {
+        assert (pos >= 0) && (pos <= count) : "Position out of range";
+        if (pos <= count / 2) {
+            moveToStart();
+            while (this.pos < pos) next();
+        } else {
+            moveToEnd();
+            while (this.pos > pos) prev();
+        }
+    }
+
+    /**
+     * @return Current element value
+     */
+    public E getValue() {
+        if (curr.next() == null) return null;
+        return curr.next().element();
+    }
+
+    /**
+     * @return The first link holding an element, or null if the list is
+     * empty. Walking from here does not move curr.
+     */
+    public DLink<E> firstLink() {
+        return head.next();
+    }
+
+    private DLink<E> newLink(E it, DLink<E> prevval, DLink<E> nextval) {
+        if (pool == null) return new DLink<E>(it, prevval, nextval);
+        return pool.acquire(it, prevval, nextval);
+    }
+}
@@ -1,6 +1,6 @@
 package ds.list;
 
-public class LinkedList<E> {
+public class LinkedList<E> implements List<E> {
     private Link<E> head;         // Pointer to list header
     private Link<E> tail;         // Pointer to last element
     protected Link<E> curr;       // Access to current element
@@ -0,0 +1,67 @@
+package ds.list;
+
+/**
+ * List ADT with a current position, shared by the list implementations.
+ * Positions run from 0 (before the first element) to length() (the end).
+ */
+public interface List<E> {
+    /**
+     * Remove all elements
+     */
+    public void clear();
+
+    /**
+     * Insert "it" at current position
+     */
+    public void insert(E it);
+
+    /**
+     * Append "it" to list
+     */
+    public void append(E it);
+
+    /**
+     * Remove and return current element
+     */
+    public E remove();
+
+    /**
+     * Set curr at list start
+     */
+    public void moveToStart();
+
+    /**
+     * Set curr at list end
+     */
+    public void moveToEnd();
+
+    /**
+     * Move curr one step left; no change if now at front
+     */
+    public void prev();
+
+    /**
+     * Move curr one step right; no change if now at end
+     */
+    public void next();
+
+    /**
+     * @return List length
+     */
+    public int length();
+
+    /**
+     * @return The position of the current element
+     */
+    public int currPos();
+
+    /**
+     * Move down list to "pos" position
+     */
+    public void moveToPos(int pos);
+
+    /**
+     * @return Current element value
+     */
+    public E getValue();
+}
@@ -2,7 +2,7 @@ package ds.queue;
 
 import java.util.NoSuchElementException;
 
-public class DistanceQueue {
+public class DistanceQueue implements IndexedQueue {
     private int maxN;        // maximum number of elements on PQ
     private int n;           // number of elements on PQ
     private int[] pq;        // binary heap using 1-based indexing
@@ -0,0 +1,110 @@
+package ds.queue;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Indexed 4-ary heap. Half as deep as the binary DistanceQueue, so siftUp
+ * (and with it decreaseDistance) does half the swaps, and the four children
+ * of a node sit next to each other in memory.
+ */
+public class FourAryDistanceQueue implements IndexedQueue {
+    private int maxN;        // maximum number of elements on PQ
+    private int n;           // number of elements on PQ
+    private int[] pq;        // 4-ary heap using 0-based indexing
+    private int[] qp;        // qp[pq[k]] = k
+    private double[] dist;   // dist[i] = priority of i
+
+    public FourAryDistanceQueue(int maxN) {
+        if (maxN < 0) throw new IllegalArgumentException();
+        this.maxN = maxN;
+        n = 0;
+        dist = new double[maxN];
+        pq = new int[maxN];
+        qp = new int[maxN];
+        for (int i = 0; i < maxN; i++)
+            qp[i] = -1;
+    }
+
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    public boolean contains(int i) {
+        if (i < 0 || i >= maxN) throw new IndexOutOfBoundsException();
+        return qp[i] != -1;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public void insert(int i, double dist) {
+        if (contains(i)) throw new IllegalArgumentException("index is already in the priority queue");
+        this.dist[i] = dist;
+        siftUp(n++, i);
+    }
+
+    public int minIndex() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        return pq[0];
+    }
+
+    public int removeMin() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        int min = pq[0];
+        qp[min] = -1;
+        if (--n > 0) siftDown(0, pq[n]);
+        return min;
+    }
+
+    public double distanceOf(int i) {
+        if (!contains(i)) throw new NoSuchElementException("index is not in the priority queue");
+        return dist[i];
+    }
+
+    public void decreaseDistance(int i, double dist) {
+        if (!contains(i)) throw new NoSuchElementException("index is not in the priority queue");
+        if (this.dist[i] <= dist)
+            throw new IllegalArgumentException("Calling decreaseDistance() with given argument would not strictly decrease the key");
+        this.dist[i] = dist;
+        siftUp(qp[i], i);
+    }
+
+    /**
+     * Move the hole at k up until i fits, then place i there
+     */
+    private void siftUp(int k, int i) {
+        double d = dist[i];
+        while (k > 0) {
+            int parent = (k - 1) >> 2;
+            if (dist[pq[parent]] <= d) break;
+            place(k, pq[parent]);
+            k = parent;
+        }
+        place(k, i);
+    }
+
+    /**
+     * Move the hole at k down until i fits, then place i there
+     */
+    private void siftDown(int k, int i) {
+        double d = dist[i];
+        while (true) {
+            int c = 4 * k + 1;
+            if (c >= n) break;
+            int best = c;
+            int last = Math.min(c + 4, n);
+            for (int j = c + 1; j < last; j++)
+                if (dist[pq[j]] < dist[pq[best]]) best = j;
+            if (dist[pq[best]] >= d) break;
+            place(k, pq[best]);
+            k = best;
+        }
+        place(k, i);
+    }
+
+    private void place(int k, int i) {
+        pq[k] = i;
+        qp[i] = k;
+    }
+}
@@ -0,0 +1,35 @@
+package ds.queue;
+
+/**
+ * Min-priority queue of vertex indices 0..maxN-1 keyed by distance, with
+ * decrease-key. Implementations differ only in layout and cost profile.
+ */
+public interface IndexedQueue {
+    public boolean isEmpty();
+
+    public boolean contains(int i);
+
+    public int size();
+
+    /**
+     * Add index i with the given distance
+     */
+    public void insert(int i, double dist);
+
+    /**
+     * @return the index with the smallest distance, leaving it queued
+     */
+    public int minIndex();
+
+    /**
+     * Remove and return the index with the smallest distance
+     */
+    public int removeMin();
+
+    public double distanceOf(int i);
+
+    /**
+     * Lower the distance of a queued index; dist must be strictly smaller
+     */
+    public void decreaseDistance(int i, double dist);
+}
@@ -0,0 +1,138 @@
+package ds.queue;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Indexed pairing heap. decreaseDistance cuts the node out and links it with
+ * the root in O(1); removeMin pays for the restructuring with a two-pass
+ * pairing of the root's children. Nodes live in parallel int arrays indexed
+ * by vertex, so nothing is allocated after construction.
+ */
+public class PairingDistanceQueue implements IndexedQueue {
+    private int maxN;          // maximum number of elements on PQ
+    private int n;             // number of elements on PQ
+    private int root;          // node with the smallest distance, -1 if empty
+    private int[] child;       // first child
+    private int[] sibling;     // next sibling
+    private int[] left;        // previous sibling, or parent for a first child
+    private boolean[] queued;
+    private double[] dist;     // dist[i] = priority of i
+
+    public PairingDistanceQueue(int maxN) {
+        if (maxN < 0) throw new IllegalArgumentException();
+        this.maxN = maxN;
+        n = 0;
+        root = -1;
+        child = new int[maxN];
+        sibling = new int[maxN];
+        left = new int[maxN];
+        queued = new boolean[maxN];
+        dist = new double[maxN];
+    }
+
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    public boolean contains(int i) {
+        if (i < 0 || i >= maxN) throw new IndexOutOfBoundsException();
+        return queued[i];
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public void insert(int i, double dist) {
+        if (contains(i)) throw new IllegalArgumentException("index is already in the priority queue");
+        child[i] = sibling[i] = left[i] = -1;
+        queued[i] = true;
+        this.dist[i] = dist;
+        root = root == -1 ? i : link(root, i);
+        n++;
+    }
+
+    public int minIndex() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        return root;
+    }
+
+    public int removeMin() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        int min = root;
+        root = mergePairs(child[min]);
+        queued[min] = false;
+        n--;
+        return min;
+    }
+
+    public double distanceOf(int i) {
+        if (!contains(i)) throw new NoSuchElementException("index is not in the priority queue");
+        return dist[i];
+    }
+
+    public void decreaseDistance(int i, double dist) {
+        if (!contains(i)) throw new NoSuchElementException("index is not in the priority queue");
+        if (this.dist[i] <= dist)
+            throw new IllegalArgumentException("Calling decreaseDistance() with given argument would not strictly decrease the key");
+        this.dist[i] = dist;
+        if (i == root) return;
+        if (child[left[i]] == i) child[left[i]] = sibling[i];   // Cut i's subtree out
+        else sibling[left[i]] = sibling[i];
+        if (sibling[i] != -1) left[sibling[i]] = left[i];
+        sibling[i] = left[i] = -1;
+        root = link(root, i);
+    }
+
+    /**
+     * Make the root with the larger distance the first child of the other
+     * @return the surviving root
+     */
+    private int link(int a, int b) {
+        if (dist[b] < dist[a]) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        sibling[b] = child[a];
+        if (child[a] != -1) left[child[a]] = b;
+        child[a] = b;
+        left[b] = a;
+        return a;
+    }
+
+    /**
+     * Two-pass pairing of the sibling list starting at first
+     * @return the root of the merged tree, -1 if the list is empty
+     */
+    private int mergePairs(int first) {
+        if (first == -1) return -1;
+        int chain = -1;   // Pass 1 results, latest first, chained by sibling
+        int a = first;
+        while (a != -1) {
+            int b = sibling[a];
+            left[a] = -1;
+            if (b == -1) {
+                sibling[a] = chain;
+                chain = a;
+                break;
+            }
+            int rest = sibling[b];
+            sibling[a] = sibling[b] = left[b] = -1;
+            int m = link(a, b);
+            sibling[m] = chain;
+            chain = m;
+            a = rest;
+        }
+        int result = chain;   // Pass 2: fold right to left
+        chain = sibling[result];
+        sibling[result] = -1;
+        while (chain != -1) {
+            int rest = sibling[chain];
+            sibling[chain] = -1;
+            result = link(result, chain);
+            chain = rest;
+        }
+        return result;
+    }
+}
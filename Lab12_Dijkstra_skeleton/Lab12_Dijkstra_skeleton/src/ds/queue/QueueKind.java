@@ -0,0 +1,27 @@
+package ds.queue;
+
+/**
+ * The IndexedQueue implementations a search can be built on.
+ */
+public enum QueueKind {
+    BINARY,     // DistanceQueue
+    FOUR_ARY,   // FourAryDistanceQueue
+    PAIRING,    // PairingDistanceQueue
+    RADIX;      // RadixDistanceQueue, non-negative integer distances only
+
+    /**
+     * @return an empty queue of this kind for indices 0..maxN-1
+     */
+    public IndexedQueue create(int maxN) {
+        switch (this) {
+            case FOUR_ARY:
+                return new FourAryDistanceQueue(maxN);
+            case PAIRING:
+                return new PairingDistanceQueue(maxN);
+            case RADIX:
+                return new RadixDistanceQueue(maxN);
+            default:
+                return new DistanceQueue(maxN);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package ds.queue;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Indexed monotone radix heap for non-negative integer distances.
+ * Bucket 0 holds keys equal to the last removed minimum; bucket b > 0 holds
+ * keys whose highest bit differing from it is bit b-1. Keys may only be
+ * inserted or decreased down to that minimum, which Dijkstra guarantees.
+ * Each key moves to a lower bucket at most 64 times, and no floating-point
+ * compares are made.
+ */
+public class RadixDistanceQueue implements IndexedQueue {
+    private static final int BUCKETS = 65;
+
+    private int maxN;          // maximum number of elements on PQ
+    private int n;             // number of elements on PQ
+    private long last;         // last minimum removed
+    private long[] key;        // key[i] = priority of i
+    private int[] bucket;      // bucket holding i, -1 if not queued
+    private int[] next;        // bucket lists are doubly linked through
+    private int[] prev;        // next/prev, -1 terminated
+    private int[] head = new int[BUCKETS];
+
+    public RadixDistanceQueue(int maxN) {
+        if (maxN < 0) throw new IllegalArgumentException();
+        this.maxN = maxN;
+        n = 0;
+        last = 0;
+        key = new long[maxN];
+        bucket = new int[maxN];
+        next = new int[maxN];
+        prev = new int[maxN];
+        for (int i = 0; i < maxN; i++)
+            bucket[i] = -1;
+        for (int b = 0; b < BUCKETS; b++)
+            head[b] = -1;
+    }
+
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    public boolean contains(int i) {
+        if (i < 0 || i >= maxN) throw new IndexOutOfBoundsException();
+        return bucket[i] != -1;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public void insert(int i, double dist) {
+        if (contains(i)) throw new IllegalArgumentException("index is already in the priority queue");
+        if (n == 0) last = 0;   // An empty queue may start a new search
+        key[i] = toKey(dist);
+        link(i);
+        n++;
+    }
+
+    public int minIndex() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        pull();
+        return head[0];
+    }
+
+    public int removeMin() {
+        int min = minIndex();
+        unlink(min);
+        bucket[min] = -1;
+        n--;
+        return min;
+    }
+
+    public double distanceOf(int i) {
+        if (!contains(i)) throw new NoSuchElementException("index is not in the priority queue");
+        return key[i];
+    }
+
+    public void decreaseDistance(int i, double dist) {
+        if (!contains(i)) throw new NoSuchElementException("index is not in the priority queue");
+        long k = toKey(dist);
+        if (key[i] <= k)
+            throw new IllegalArgumentException("Calling decreaseDistance() with given argument would not strictly decrease the key");
+        unlink(i);
+        key[i] = k;
+        link(i);
+    }
+
+    private long toKey(double dist) {
+        long k = (long) dist;
+        if (k != dist || k < 0)
+            throw new IllegalArgumentException("distance must be a non-negative integer");
+        if (k < last)
+            throw new IllegalArgumentException("distance is below the last removed minimum");
+        return k;
+    }
+
+    /**
+     * Refill bucket 0 from the lowest non-empty bucket, raising last to
+     * that bucket's minimum
+     */
+    private void pull() {
+        if (head[0] != -1) return;
+        int b = 1;
+        while (head[b] == -1) b++;
+        long min = Long.MAX_VALUE;
+        for (int i = head[b]; i != -1; i = next[i])
+            min = Math.min(min, key[i]);
+        last = min;
+        int i = head[b];
+        head[b] = -1;
+        while (i != -1) {   // Every key lands in a bucket below b
+            int rest = next[i];
+            link(i);
+            i = rest;
+        }
+    }
+
+    /**
+     * Push i onto the front of the bucket its key belongs to
+     */
+    private void link(int i) {
+        int b = key[i] == last ? 0 : 64 - Long.numberOfLeadingZeros(key[i] ^ last);
+        bucket[i] = b;
+        prev[i] = -1;
+        next[i] = head[b];
+        if (head[b] != -1) prev[head[b]] = i;
+        head[b] = i;
+    }
+
+    private void unlink(int i) {
+        if (prev[i] != -1) next[prev[i]] = next[i];
+        else head[bucket[i]] = next[i];
+        if (next[i] != -1) prev[next[i]] = prev[i];
+    }
+}
@@ -0,0 +1,17 @@
+package ds.test;
+
+import ds.graph.GraphFile;
+
+/**
+ * Convert a text graph (n / edge commands) to the binary graph format.
+ * Usage: ConvertGraph input.txt output.graph
+ */
+public class ConvertGraph {
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            System.out.println("Usage: ConvertGraph <text input> <binary output>");
+            return;
+        }
+        GraphFile.convert(args[0], args[1]);
+    }
+}
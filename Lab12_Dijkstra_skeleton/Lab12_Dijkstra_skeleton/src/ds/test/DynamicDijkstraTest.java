@@ -0,0 +1,41 @@
+package ds.test;
+
+import ds.graph.Dijkstra;
+import ds.graph.Graph;
+import ds.queue.QueueKind;
+
+import java.util.Arrays;
+
+/**
+ * Checks that Dijkstra.updateEdge recomputes its tree correctly after the
+ * graph was changed behind its back, including when the change turns an
+ * all-integer graph (radix queue) into one with a fractional weight.
+ */
+public class DynamicDijkstraTest {
+    public static void main(String[] args) {
+        Graph G = new Graph(4);
+        G.setEdge(0, 1, 1);
+        G.setEdge(1, 2, 2);
+        G.setEdge(0, 2, 4);
+        G.setEdge(2, 3, 1);
+        Dijkstra dynamic = new Dijkstra(G);       // Integer weights: radix queue
+        dynamic.calculateShortestPath(G, 0);
+
+        G.setEdge(1, 2, 0.5);                     // Not through dynamic, so its tree is stale
+        dynamic.updateEdge(2, 3, 1.5);            // Recomputes the stale tree first
+        expect(dynamic, G, "fractional weight set behind the tree's back");
+
+        G.delEdge(0, 1);
+        dynamic.removeEdge(0, 2);
+        expect(dynamic, G, "edges removed afterwards");
+        System.out.println("OK");
+    }
+
+    private static void expect(Dijkstra dynamic, Graph G, String what) {
+        Dijkstra fresh = new Dijkstra(G, QueueKind.BINARY);
+        fresh.calculateShortestPath(G, 0);
+        if (!Arrays.equals(dynamic.distances(), fresh.distances()))
+            throw new AssertionError(what + ": got " + Arrays.toString(dynamic.distances())
+                    + ", expected " + Arrays.toString(fresh.distances()));
+    }
+}